@@ -0,0 +1,93 @@
+package com.gregrode.util.bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gregrode.util.Things;
+
+/**
+ * Throughput of the binary encoding against the JSON path, by number of rows of a typical service payload: an object holding
+ * an array of records with the same keys. The sizes of both encodings are listed in the README.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BinaryBenchmark
+{
+	@Param({ "1", "100", "10000" })
+	private int rows;
+
+	private Map<String, Object> payload;
+	private byte[] json;
+	private byte[] binary;
+
+	@Setup
+	public void setUp()
+	{
+		final List<Map<String, Object>> records = new ArrayList<>();
+		for (int i = 0; i < rows; i++)
+		{
+			final Map<String, Object> record = new LinkedHashMap<>();
+			record.put("id", i);
+			record.put("name", "record-" + i);
+			record.put("score", i * 0.5);
+			record.put("active", (i % 2) == 0);
+			record.put("created", 1_460_000_000_000L + i);
+			records.add(record);
+		}
+		payload = new LinkedHashMap<>();
+		payload.put("total", rows);
+		payload.put("records", records);
+		json = Things.toJSON(payload).getBytes(StandardCharsets.UTF_8);
+		binary = Things.toBinary(payload);
+	}
+
+	@Benchmark
+	public Object toJSON() throws IOException
+	{
+		final JsonBenchmark.CountingOutputStream out = new JsonBenchmark.CountingOutputStream();
+		Things.toJSON(payload, out);
+		return out.count;
+	}
+
+	@Benchmark
+	public Object toBinary()
+	{
+		return Things.toBinary(payload);
+	}
+
+	@Benchmark
+	public Object toMap()
+	{
+		return Things.toMap(json);
+	}
+
+	@Benchmark
+	public Object fromBinary()
+	{
+		return Things.fromBinary(binary);
+	}
+}
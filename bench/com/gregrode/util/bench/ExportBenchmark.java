@@ -0,0 +1,82 @@
+package com.gregrode.util.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gregrode.util.JsonMappers;
+import com.gregrode.util.Things;
+
+/**
+ * Time to export a list of records as a JSON array or as newline-delimited JSON, with the chunked parallel encoding, against a
+ * single Jackson call writing the whole list to the same stream. Run on machines with several cores to see the scaling.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExportBenchmark
+{
+	@Param({ "1000", "100000", "1000000" })
+	private int records;
+
+	private List<Map<String, Object>> items;
+
+	@Setup
+	public void setUp()
+	{
+		items = new ArrayList<>(records);
+		for (int i = 0; i < records; i++)
+		{
+			final Map<String, Object> record = new LinkedHashMap<>();
+			record.put("id", i);
+			record.put("name", "record-" + i);
+			record.put("score", i * 0.5);
+			items.add(record);
+		}
+	}
+
+	@Benchmark
+	public Object singleWriter() throws IOException
+	{
+		final JsonBenchmark.CountingOutputStream out = new JsonBenchmark.CountingOutputStream();
+		JsonMappers.mapper().writeValue(out, items);
+		return out.count;
+	}
+
+	@Benchmark
+	public Object toJSON() throws IOException
+	{
+		final JsonBenchmark.CountingOutputStream out = new JsonBenchmark.CountingOutputStream();
+		Things.toJSON(items, out);
+		return out.count;
+	}
+
+	@Benchmark
+	public Object toNDJSON() throws IOException
+	{
+		final JsonBenchmark.CountingOutputStream out = new JsonBenchmark.CountingOutputStream();
+		Things.toNDJSON(items, out);
+		return out.count;
+	}
+}
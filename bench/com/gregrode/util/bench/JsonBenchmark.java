@@ -0,0 +1,120 @@
+package com.gregrode.util.bench;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gregrode.util.Things;
+
+/**
+ * Throughput of the JSON conversions, by number of entries in the JSON object. The {@code perCallMapper} benchmarks measure
+ * building an {@link ObjectMapper} per call, as the conversions once did, for comparison.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JsonBenchmark
+{
+	@Param({ "4", "100", "10000" })
+	private int entries;
+
+	private Map<String, Object> map;
+	private String json;
+	private byte[] bytes;
+
+	@Setup
+	public void setUp()
+	{
+		map = new LinkedHashMap<>();
+		for (int i = 0; i < entries; i++)
+		{
+			map.put("key-" + i, ((i % 2) == 0) ? (Object) ("value-" + i) : (Object) i);
+		}
+		json = Things.toJSON(map);
+		bytes = json.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Benchmark
+	public Object toJSON()
+	{
+		return Things.toJSON(map);
+	}
+
+	@Benchmark
+	public Object toJSONStream() throws IOException
+	{
+		final CountingOutputStream out = new CountingOutputStream();
+		Things.toJSON(map, out);
+		return out.count;
+	}
+
+	@Benchmark
+	public Object toMap()
+	{
+		return Things.toMap(json);
+	}
+
+	@Benchmark
+	public Object toMapBytes()
+	{
+		return Things.toMap(bytes);
+	}
+
+	@Benchmark
+	public Object toLazyMapGet()
+	{
+		return Things.toLazyMap(json).get("key-0");
+	}
+
+	@Benchmark
+	public Object perCallMapperToJSON() throws IOException
+	{
+		return new ObjectMapper().writeValueAsString(map);
+	}
+
+	@Benchmark
+	public Object perCallMapperToMap() throws IOException
+	{
+		final ObjectMapper mapper = new ObjectMapper();
+		return mapper.treeToValue(mapper.readTree(json.replaceAll("'", "\"")), LinkedHashMap.class);
+	}
+
+	static final class CountingOutputStream extends OutputStream
+	{
+		long count;
+
+		@Override
+		public void write(int b)
+		{
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len)
+		{
+			count += len;
+		}
+	}
+}
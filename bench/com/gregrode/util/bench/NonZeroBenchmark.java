@@ -0,0 +1,73 @@
+package com.gregrode.util.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gregrode.util.ArrayScans;
+import com.gregrode.util.Things;
+
+/**
+ * Throughput of {@link Things#nonZero(int...)} and the {@link ArrayScans} scans, by array size. Only the last element of each
+ * array is non-zero, so every scan covers the whole array.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NonZeroBenchmark
+{
+	@Param({ "16", "4096", "1048576" })
+	private int size;
+
+	private int[] ints;
+	private byte[] bytes;
+
+	@Setup
+	public void setUp()
+	{
+		ints = new int[size];
+		ints[size - 1] = 1;
+		bytes = new byte[size];
+		bytes[size - 1] = 1;
+	}
+
+	@Benchmark
+	public int nonZero()
+	{
+		return Things.nonZero(ints);
+	}
+
+	@Benchmark
+	public int firstNonZeroInt()
+	{
+		return ArrayScans.firstNonZero(ints);
+	}
+
+	@Benchmark
+	public int countNonZeroInt()
+	{
+		return ArrayScans.countNonZero(ints);
+	}
+
+	@Benchmark
+	public int firstNonZeroByte()
+	{
+		return ArrayScans.firstNonZero(bytes);
+	}
+}
@@ -0,0 +1,67 @@
+package com.gregrode.util.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gregrode.util.Things;
+
+/**
+ * Throughput of {@code Things.pluck} and its primitive variants, by input size.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PluckBenchmark
+{
+	@Param({ "10", "1000", "100000" })
+	private int size;
+
+	private List<String> items;
+
+	@Setup
+	public void setUp()
+	{
+		items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			items.add(Integer.toString(i));
+		}
+	}
+
+	@Benchmark
+	public Object pluck()
+	{
+		return Things.pluck(items, String::length);
+	}
+
+	@Benchmark
+	public Object pluckParallel()
+	{
+		return Things.pluck(items, String::length, 10_000);
+	}
+
+	@Benchmark
+	public Object pluckInt()
+	{
+		return Things.pluckInt(items, String::length);
+	}
+}
@@ -0,0 +1,95 @@
+package com.gregrode.util.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gregrode.util.Things;
+
+/**
+ * Throughput of the collection based {@code Things.toMap} conversions, by input size and key type.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ToMapBenchmark
+{
+	@Param({ "10", "1000", "100000" })
+	private int size;
+
+	@Param({ "string", "int" })
+	private String keyType;
+
+	private List<Item> items;
+
+	@Setup
+	public void setUp()
+	{
+		items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			items.add(new Item(i, "name-" + i));
+		}
+	}
+
+	@Benchmark
+	public Object toMap()
+	{
+		return "int".equals(keyType) ? Things.toMap(HashMap::new, Item::getId, Item::getName, items)
+				: Things.toMap(HashMap::new, Item::getName, Item::getId, items);
+	}
+
+	@Benchmark
+	public Object toMapParallel()
+	{
+		return "int".equals(keyType) ? Things.toMap(HashMap::new, Item::getId, Item::getName, items, 10_000)
+				: Things.toMap(HashMap::new, Item::getName, Item::getId, items, 10_000);
+	}
+
+	@Benchmark
+	public Object toIntMap()
+	{
+		return Things.toIntMap(Item::getId, Item::getName, items);
+	}
+
+	static final class Item
+	{
+		private final int id;
+		private final String name;
+
+		Item(int id, String name)
+		{
+			this.id = id;
+			this.name = name;
+		}
+
+		public int getId()
+		{
+			return id;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+	}
+}
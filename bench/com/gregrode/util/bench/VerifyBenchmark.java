@@ -0,0 +1,65 @@
+package com.gregrode.util.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.gregrode.util.Things;
+
+/**
+ * Throughput of the successful path of the {@link Things#verify(Object, java.util.function.Predicate)} family.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VerifyBenchmark
+{
+	private String name = "greg";
+	private List<String> possession = Arrays.asList("house", "car");
+
+	@Benchmark
+	public Object verifyNonNull()
+	{
+		return Things.verify(name);
+	}
+
+	@Benchmark
+	public Object verifyPredicate()
+	{
+		return Things.verify(name, s -> s.length() == 4);
+	}
+
+	@Benchmark
+	public Object verifyMessagePredicate()
+	{
+		return Things.verify(possession, "The person must have things", l -> l.contains("car"));
+	}
+
+	@Benchmark
+	public Object verifySupplier()
+	{
+		return Things.verify(possession, () -> new IllegalArgumentException("The person must have things"));
+	}
+
+	@Benchmark
+	public Object verifyEagerException()
+	{
+		return Things.verify(possession, new IllegalArgumentException("The person must have things"));
+	}
+}
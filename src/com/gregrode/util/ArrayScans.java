@@ -0,0 +1,435 @@
+package com.gregrode.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * The <code>ArrayScans</code> class finds and counts the non-zero elements of primitive arrays, whole or within a range.
+ * <p>
+ * The loops are shaped for throughput rather than written element by element: searches test a block of elements at once by
+ * OR-ing them together and only look inside a block that is not all zero, counts are branch-free reductions the JIT can
+ * vectorize, and {@code byte} arrays are read eight bytes at a time as {@code long} words. A {@code double} is zero when it
+ * is {@code 0.0} or {@code -0.0}; {@code NaN} is not zero.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class ArrayScans
+{
+
+	private static final int BLOCK = 8;
+	private static final long ABS = 0x7FFF_FFFF_FFFF_FFFFL;
+	private static final long LOW_SEVEN_BITS = 0x7F7F_7F7F_7F7F_7F7FL;
+	private static final long HIGH_BITS = 0x8080_8080_8080_8080L;
+	private static final VarHandle WORDS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+	private ArrayScans()
+	{
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the index of the first non-zero element, or {@code -1} if every element is zero
+	 */
+	public static int firstNonZero(int[] array)
+	{
+		return firstNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the index of the first non-zero element in the range, or {@code -1} if every element in the range is zero
+	 */
+	public static int firstNonZero(int[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		final int end = offset + length;
+		int i = offset;
+		for (; i <= (end - BLOCK); i += BLOCK)
+		{
+			if ((array[i] | array[i + 1] | array[i + 2] | array[i + 3] | array[i + 4] | array[i + 5] | array[i + 6]
+					| array[i + 7]) != 0)
+			{
+				break;
+			}
+		}
+		for (; i < end; i++)
+		{
+			if (array[i] != 0)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return {@code true} if every element is zero
+	 */
+	public static boolean allZero(int[] array)
+	{
+		return firstNonZero(array) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return {@code true} if every element in the range is zero
+	 */
+	public static boolean allZero(int[] array, int offset, int length)
+	{
+		return firstNonZero(array, offset, length) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the number of non-zero elements
+	 */
+	public static int countNonZero(int[] array)
+	{
+		return countNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the number of non-zero elements in the range
+	 */
+	public static int countNonZero(int[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		int count = 0;
+		for (int i = offset, end = offset + length; i < end; i++)
+		{
+			final int value = array[i];
+			// the sign bit of (x | -x) is set for every x but zero
+			count += (value | -value) >>> 31;
+		}
+		return count;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the index of the first non-zero element, or {@code -1} if every element is zero
+	 */
+	public static int firstNonZero(long[] array)
+	{
+		return firstNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the index of the first non-zero element in the range, or {@code -1} if every element in the range is zero
+	 */
+	public static int firstNonZero(long[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		final int end = offset + length;
+		int i = offset;
+		for (; i <= (end - BLOCK); i += BLOCK)
+		{
+			if ((array[i] | array[i + 1] | array[i + 2] | array[i + 3] | array[i + 4] | array[i + 5] | array[i + 6]
+					| array[i + 7]) != 0)
+			{
+				break;
+			}
+		}
+		for (; i < end; i++)
+		{
+			if (array[i] != 0)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return {@code true} if every element is zero
+	 */
+	public static boolean allZero(long[] array)
+	{
+		return firstNonZero(array) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return {@code true} if every element in the range is zero
+	 */
+	public static boolean allZero(long[] array, int offset, int length)
+	{
+		return firstNonZero(array, offset, length) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the number of non-zero elements
+	 */
+	public static int countNonZero(long[] array)
+	{
+		return countNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the number of non-zero elements in the range
+	 */
+	public static int countNonZero(long[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		int count = 0;
+		for (int i = offset, end = offset + length; i < end; i++)
+		{
+			final long value = array[i];
+			count += (int) ((value | -value) >>> 63);
+		}
+		return count;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the index of the first non-zero element, or {@code -1} if every element is zero
+	 */
+	public static int firstNonZero(double[] array)
+	{
+		return firstNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the index of the first non-zero element in the range, or {@code -1} if every element in the range is zero
+	 */
+	public static int firstNonZero(double[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		final int end = offset + length;
+		int i = offset;
+		for (; i <= (end - BLOCK); i += BLOCK)
+		{
+			// both zeros differ only in the sign bit, which is masked off once for the whole block
+			if (((bits(array[i]) | bits(array[i + 1]) | bits(array[i + 2]) | bits(array[i + 3]) | bits(array[i + 4])
+					| bits(array[i + 5]) | bits(array[i + 6]) | bits(array[i + 7])) & ABS) != 0)
+			{
+				break;
+			}
+		}
+		for (; i < end; i++)
+		{
+			if ((bits(array[i]) & ABS) != 0)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return {@code true} if every element is zero
+	 */
+	public static boolean allZero(double[] array)
+	{
+		return firstNonZero(array) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return {@code true} if every element in the range is zero
+	 */
+	public static boolean allZero(double[] array, int offset, int length)
+	{
+		return firstNonZero(array, offset, length) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the number of non-zero elements
+	 */
+	public static int countNonZero(double[] array)
+	{
+		return countNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the number of non-zero elements in the range
+	 */
+	public static int countNonZero(double[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		int count = 0;
+		for (int i = offset, end = offset + length; i < end; i++)
+		{
+			final long value = bits(array[i]) & ABS;
+			count += (int) ((value | -value) >>> 63);
+		}
+		return count;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the index of the first non-zero element, or {@code -1} if every element is zero
+	 */
+	public static int firstNonZero(byte[] array)
+	{
+		return firstNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the index of the first non-zero element in the range, or {@code -1} if every element in the range is zero
+	 */
+	public static int firstNonZero(byte[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		final int end = offset + length;
+		int i = offset;
+		for (; i <= (end - Long.BYTES); i += Long.BYTES)
+		{
+			final long word = (long) WORDS.get(array, i);
+			if (word != 0)
+			{
+				// little-endian: the lowest non-zero byte of the word is the first one in the array
+				return i + (Long.numberOfTrailingZeros(word) >>> 3);
+			}
+		}
+		for (; i < end; i++)
+		{
+			if (array[i] != 0)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return {@code true} if every element is zero
+	 */
+	public static boolean allZero(byte[] array)
+	{
+		return firstNonZero(array) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return {@code true} if every element in the range is zero
+	 */
+	public static boolean allZero(byte[] array, int offset, int length)
+	{
+		return firstNonZero(array, offset, length) < 0;
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @return the number of non-zero elements
+	 */
+	public static int countNonZero(byte[] array)
+	{
+		return countNonZero(array, 0, array.length);
+	}
+
+	/**
+	 * @param array
+	 *            the array to scan
+	 * @param offset
+	 *            the index of the first element to scan
+	 * @param length
+	 *            the number of elements to scan
+	 * @return the number of non-zero elements in the range
+	 */
+	public static int countNonZero(byte[] array, int offset, int length)
+	{
+		Objects.checkFromIndexSize(offset, length, array.length);
+		final int end = offset + length;
+		int count = 0;
+		int i = offset;
+		for (; i <= (end - Long.BYTES); i += Long.BYTES)
+		{
+			final long word = (long) WORDS.get(array, i);
+			// sets the high bit of every non-zero byte: the low seven bits carry into it, or it was already set
+			final long high = (((word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | word) & HIGH_BITS;
+			count += Long.bitCount(high);
+		}
+		for (; i < end; i++)
+		{
+			count += (array[i] != 0) ? 1 : 0;
+		}
+		return count;
+	}
+
+	private static long bits(double value)
+	{
+		return Double.doubleToRawLongBits(value);
+	}
+}
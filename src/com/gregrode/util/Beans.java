@@ -0,0 +1,424 @@
+package com.gregrode.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The <code>Beans</code> class copies the properties of Java beans to and from maps for {@link Things#beanToMap(Object)} and
+ * {@link Things#fromMap(Map, Class)}. The getters, setters and public fields of a class are discovered once, the first time the
+ * class is seen, and bound to functions generated by {@link LambdaMetafactory}, so a copy afterwards is a plain interface call
+ * per property, without reflection or text encoding. Fields, and methods that cannot be bound that way, fall back to
+ * {@link MethodHandle} invocations.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class Beans
+{
+
+	private static final ClassValue<Bean> BEANS = new ClassValue<Bean>()
+	{
+		@Override
+		protected Bean computeValue(Class<?> type)
+		{
+			return new Bean(type);
+		}
+	};
+
+	private Beans()
+	{
+	}
+
+	/**
+	 * Copy the readable properties of the given bean into the given map.
+	 *
+	 * @param bean
+	 *            the bean
+	 * @param map
+	 *            the map to populate
+	 * @return the given map
+	 */
+	static <M extends Map<String, Object>> M read(Object bean, M map)
+	{
+		for (final Property property : BEANS.get(bean.getClass()).properties)
+		{
+			if (property.getter != null)
+			{
+				map.put(property.name, property.getter.apply(bean));
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Create an instance of the given class and set the writable properties named by the keys of the given map. Keys that do not
+	 * name a writable property are ignored.
+	 *
+	 * @param map
+	 *            the property values
+	 * @param type
+	 *            the class of the bean; it must have a no-argument constructor
+	 * @return the bean
+	 */
+	static <T> T write(Map<String, ?> map, Class<T> type)
+	{
+		final Bean bean = BEANS.get(type);
+		if (bean.constructor == null)
+		{
+			throw new IllegalArgumentException(type.getName() + " has no accessible no-argument constructor.");
+		}
+		final T t = type.cast(bean.constructor.get());
+		for (final Map.Entry<String, ?> entry : map.entrySet())
+		{
+			final Property property = bean.byName.get(entry.getKey());
+			if ((property != null) && (property.setter != null))
+			{
+				final Object value = property.convert(entry.getValue());
+				if ((value != null) || !property.writeType.isPrimitive())
+				{
+					property.setter.accept(t, value);
+				}
+			}
+		}
+		return t;
+	}
+
+	private static RuntimeException rethrow(Throwable t)
+	{
+		if (t instanceof RuntimeException)
+		{
+			return (RuntimeException) t;
+		}
+		if (t instanceof Error)
+		{
+			throw (Error) t;
+		}
+		return new RuntimeException(t);
+	}
+
+	/**
+	 * The properties of a class, in name order.
+	 */
+	private static final class Bean
+	{
+		private final Supplier<Object> constructor;
+		private final Property[] properties;
+		private final Map<String, Property> byName;
+		private final Map<String, Property> sorted = new TreeMap<>();
+
+		Bean(Class<?> type)
+		{
+			final MethodHandles.Lookup lookup = lookup(type);
+			for (final Field field : type.getFields())
+			{
+				if (!Modifier.isStatic(field.getModifiers()))
+				{
+					property(field.getName(), field.getType(), field.getGenericType()).bind(lookup, field);
+				}
+			}
+			// getters first, so that a property has its type when its setters are seen, whatever the order of the methods
+			final Method[] methods = type.getMethods();
+			for (final Method method : methods)
+			{
+				final String name = method.getName();
+				if (isAccessor(method) && (method.getParameterCount() == 0) && (method.getReturnType() != void.class))
+				{
+					if (name.startsWith("get") && (name.length() > 3))
+					{
+						property(decapitalize(name.substring(3)), method.getReturnType(), method.getGenericReturnType())
+								.bindGetter(lookup, method);
+					}
+					else if (name.startsWith("is") && (name.length() > 2) && (method.getReturnType() == boolean.class))
+					{
+						property(decapitalize(name.substring(2)), boolean.class, boolean.class).bindGetter(lookup, method);
+					}
+				}
+			}
+			for (final Method method : methods)
+			{
+				final String name = method.getName();
+				if (isAccessor(method) && (method.getParameterCount() == 1) && name.startsWith("set") && (name.length() > 3))
+				{
+					final Class<?> parameter = method.getParameterTypes()[0];
+					final Property property = sorted.get(decapitalize(name.substring(3)));
+					if (property == null)
+					{
+						property(decapitalize(name.substring(3)), parameter, method.getGenericParameterTypes()[0])
+								.bindSetter(lookup, method, parameter, method.getGenericParameterTypes()[0]);
+					}
+					else if ((property.type == parameter) || (property.setter == null))
+					{
+						// a setter of the type of the getter wins over any other overload
+						property.bindSetter(lookup, method, parameter, method.getGenericParameterTypes()[0]);
+					}
+				}
+			}
+			this.properties = sorted.values().toArray(new Property[sorted.size()]);
+			this.byName = new HashMap<>(sorted);
+			this.constructor = constructor(lookup, type);
+		}
+
+		private static boolean isAccessor(Method method)
+		{
+			return !Modifier.isStatic(method.getModifiers()) && !method.isBridge()
+					&& (method.getDeclaringClass() != Object.class);
+		}
+
+		private Property property(String name, Class<?> type, Type genericType)
+		{
+			final Property existing = sorted.get(name);
+			if ((existing != null) && (existing.type == type))
+			{
+				return existing;
+			}
+			final Property property = new Property(name, type, genericType);
+			sorted.put(name, property);
+			return property;
+		}
+
+		@SuppressWarnings("unchecked")
+		private static Supplier<Object> constructor(MethodHandles.Lookup lookup, Class<?> type)
+		{
+			try
+			{
+				final MethodHandle handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+				try
+				{
+					final CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+							MethodType.methodType(Object.class), handle, MethodType.methodType(type));
+					return (Supplier<Object>) site.getTarget().invoke();
+				}
+				catch (final Throwable e)
+				{
+					final MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+					return () -> {
+						try
+						{
+							return generic.invokeExact();
+						}
+						catch (final Throwable t)
+						{
+							throw rethrow(t);
+						}
+					};
+				}
+			}
+			catch (final ReflectiveOperationException | RuntimeException e)
+			{
+				return null;
+			}
+		}
+
+		private static MethodHandles.Lookup lookup(Class<?> type)
+		{
+			try
+			{
+				return MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+			}
+			catch (final IllegalAccessException | RuntimeException e)
+			{
+				return MethodHandles.publicLookup();
+			}
+		}
+
+		/**
+		 * Decapitalize a property name the way {@code java.beans.Introspector} does: {@code URL} stays {@code URL}.
+		 */
+		private static String decapitalize(String name)
+		{
+			if ((name.length() > 1) && Character.isUpperCase(name.charAt(0)) && Character.isUpperCase(name.charAt(1)))
+			{
+				return name;
+			}
+			return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+		}
+	}
+
+	/**
+	 * A property and the functions reading and writing it.
+	 */
+	private static final class Property
+	{
+		private final String name;
+		private final Class<?> type;
+		private Class<?> writeType;
+		private Type writeGenericType;
+		private Function<Object, Object> getter;
+		private BiConsumer<Object, Object> setter;
+
+		Property(String name, Class<?> type, Type genericType)
+		{
+			this.name = name;
+			this.type = type;
+			this.writeType = type;
+			this.writeGenericType = genericType;
+		}
+
+		void bind(MethodHandles.Lookup lookup, Field field)
+		{
+			try
+			{
+				getter = function(lookup.unreflectGetter(field));
+				if (!Modifier.isFinal(field.getModifiers()))
+				{
+					setter = consumer(lookup.unreflectSetter(field));
+				}
+			}
+			catch (final IllegalAccessException e)
+			{
+				// not accessible from here; the property is skipped
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		void bindGetter(MethodHandles.Lookup lookup, Method method)
+		{
+			try
+			{
+				final MethodHandle handle = lookup.unreflect(method);
+				try
+				{
+					final CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+							MethodType.methodType(Object.class, Object.class), handle,
+							MethodType.methodType(box(method.getReturnType()), method.getDeclaringClass()));
+					getter = (Function<Object, Object>) site.getTarget().invoke();
+				}
+				catch (final Throwable e)
+				{
+					getter = function(handle);
+				}
+			}
+			catch (final IllegalAccessException e)
+			{
+				// not accessible from here; the property is skipped
+			}
+		}
+
+		/**
+		 * Bind the given setter, whose parameter may differ in type from the getter; values written are converted to the type of
+		 * the parameter.
+		 */
+		@SuppressWarnings("unchecked")
+		void bindSetter(MethodHandles.Lookup lookup, Method method, Class<?> parameter, Type genericParameter)
+		{
+			try
+			{
+				final MethodHandle handle = lookup.unreflect(method);
+				writeType = parameter;
+				writeGenericType = genericParameter;
+				try
+				{
+					final CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+							MethodType.methodType(void.class, Object.class, Object.class), handle,
+							MethodType.methodType(void.class, method.getDeclaringClass(), box(parameter)));
+					setter = (BiConsumer<Object, Object>) site.getTarget().invoke();
+				}
+				catch (final Throwable e)
+				{
+					setter = consumer(handle);
+				}
+			}
+			catch (final IllegalAccessException e)
+			{
+				// not accessible from here; the property is skipped
+			}
+		}
+
+		/**
+		 * Convert the given map value to the type of the setter of the property. Values that already fit are returned as they
+		 * are, numbers are narrowed or widened, and anything else is converted by the shared
+		 * {@link com.fasterxml.jackson.databind.ObjectMapper}. Values of parameterized types such as {@code List<String>} are
+		 * always converted, since their elements cannot be checked cheaply.
+		 */
+		Object convert(Object value)
+		{
+			if ((value == null) || ((writeGenericType instanceof Class) && box(writeType).isInstance(value)))
+			{
+				return value;
+			}
+			if (value instanceof Number)
+			{
+				final Number number = (Number) value;
+				final Class<?> boxed = box(writeType);
+				if (boxed == Integer.class)
+				{
+					return number.intValue();
+				}
+				if (boxed == Long.class)
+				{
+					return number.longValue();
+				}
+				if (boxed == Double.class)
+				{
+					return number.doubleValue();
+				}
+				if (boxed == Float.class)
+				{
+					return number.floatValue();
+				}
+				if (boxed == Short.class)
+				{
+					return number.shortValue();
+				}
+				if (boxed == Byte.class)
+				{
+					return number.byteValue();
+				}
+			}
+			return JsonMappers.mapper().convertValue(value,
+					JsonMappers.mapper().getTypeFactory().constructType(writeGenericType));
+		}
+
+		private static Function<Object, Object> function(MethodHandle handle)
+		{
+			final MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+			return bean -> {
+				try
+				{
+					return generic.invokeExact(bean);
+				}
+				catch (final Throwable t)
+				{
+					throw rethrow(t);
+				}
+			};
+		}
+
+		private static BiConsumer<Object, Object> consumer(MethodHandle handle)
+		{
+			final MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			return (bean, value) -> {
+				try
+				{
+					generic.invokeExact(bean, value);
+				}
+				catch (final Throwable t)
+				{
+					throw rethrow(t);
+				}
+			};
+		}
+
+		private static Class<?> box(Class<?> type)
+		{
+			if (!type.isPrimitive())
+			{
+				return type;
+			}
+			return MethodType.methodType(type).wrap().returnType();
+		}
+	}
+}
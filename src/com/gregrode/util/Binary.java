@@ -0,0 +1,551 @@
+package com.gregrode.util;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The <code>Binary</code> class implements the compact binary encoding of {@link Things#toBinary(Object)} and
+ * {@link Things#fromBinary(ByteBuffer)}, a drop-in replacement for JSON between services that both use this library. Decoding
+ * gives the same maps as parsing the JSON of the same object with {@link Things#toMap(String)}: nested objects are
+ * {@link LinkedHashMap}s, arrays are {@link ArrayList}s, integers are {@link Integer}s, {@link Long}s or {@link BigInteger}s
+ * depending on their magnitude, and every other number is a {@link Double}.
+ * <p>
+ * A message is the two header bytes {@code 0xCB 0x01} (magic and format version) followed by a single value. A value is a tag
+ * byte followed by its payload:
+ *
+ * <pre>
+ * 0x00  null
+ * 0x01  false
+ * 0x02  true
+ * 0x03  int          zigzag varint
+ * 0x04  long         zigzag varint
+ * 0x05  double       8 bytes, IEEE 754, big-endian
+ * 0x06  big integer  varint length, then the two's-complement bytes, big-endian
+ * 0x07  string       varint length, then the UTF-8 bytes
+ * 0x08  object       varint count, then count times a key followed by a value
+ * 0x09  array        varint count, then count values
+ * </pre>
+ *
+ * Varints are unsigned LEB128: 7 bits per byte, least significant group first, the high bit set on every byte but the last. A
+ * key is a varint {@code n}: when {@code n} is even, it is followed by {@code n / 2} bytes of UTF-8 that are the key and become
+ * the next entry of the key table of the message; when {@code n} is odd, the key is entry {@code n / 2} of that table. Keys
+ * repeated across the objects of an array are thus written once.
+ * <p>
+ * Maps, collections, arrays of objects, strings, numbers and booleans are encoded directly; keys are converted with
+ * {@link String#valueOf(Object)}. Any other object, such as a bean, is first converted by the shared
+ * {@link com.fasterxml.jackson.databind.ObjectMapper}, as {@link Things#toJSON(Object)} would serialize it. Decoding rejects
+ * objects and arrays nested more than {@value #MAX_DEPTH} deep.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class Binary
+{
+
+	private static final byte MAGIC = (byte) 0xCB;
+	private static final byte VERSION = 1;
+
+	private static final int NULL = 0x00;
+	private static final int FALSE = 0x01;
+	private static final int TRUE = 0x02;
+	private static final int INT = 0x03;
+	private static final int LONG = 0x04;
+	private static final int DOUBLE = 0x05;
+	private static final int BIG_INTEGER = 0x06;
+	private static final int STRING = 0x07;
+	private static final int OBJECT = 0x08;
+	private static final int ARRAY = 0x09;
+
+	/**
+	 * The deepest nesting of objects and arrays that is decoded, as for the default stream constraints of Jackson, so that a
+	 * malicious message cannot exhaust the stack.
+	 */
+	private static final int MAX_DEPTH = 1000;
+
+	private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+	private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+	private Binary()
+	{
+	}
+
+	/**
+	 * Encode the given object.
+	 *
+	 * @param obj
+	 *            the object
+	 * @return the message
+	 */
+	static byte[] encode(Object obj)
+	{
+		final Encoder encoder = new Encoder();
+		encoder.write(MAGIC);
+		encoder.write(VERSION);
+		encoder.value(obj);
+		return Arrays.copyOf(encoder.bytes, encoder.size);
+	}
+
+	/**
+	 * Decode the object of the given message into the given map. The position of the buffer is not changed.
+	 *
+	 * @param buffer
+	 *            the message
+	 * @param map
+	 *            the map to populate
+	 * @return the given map
+	 * @throws IOException
+	 *             if the message is malformed or does not hold an object.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static <M extends Map> M decode(ByteBuffer buffer, M map) throws IOException
+	{
+		final Decoder decoder = new Decoder(buffer.duplicate());
+		try
+		{
+			if ((decoder.in.get() != MAGIC) || (decoder.in.get() != VERSION))
+			{
+				throw new IOException("Not a binary message of version " + VERSION + ".");
+			}
+			final int tag = decoder.in.get();
+			if (tag != OBJECT)
+			{
+				throw new IOException("Expected an object but found tag " + tag + ".");
+			}
+			final boolean text = JsonMappers.readsText(map);
+			for (int count = decoder.count(); count > 0; count--)
+			{
+				final String key = decoder.key();
+				final Object value = decoder.value();
+				map.put(key, text ? text(value) : value);
+			}
+		}
+		catch (final BufferUnderflowException e)
+		{
+			throw new IOException("Truncated binary message.", e);
+		}
+		return map;
+	}
+
+	/**
+	 * @return the value as the JSON text {@link JsonMappers#readText} would give for it
+	 */
+	private static String text(Object value) throws IOException
+	{
+		if ((value == null) || (value instanceof String))
+		{
+			return (String) value;
+		}
+		if ((value instanceof Map) || (value instanceof List))
+		{
+			return JsonMappers.mapper().writeValueAsString(value);
+		}
+		return value.toString();
+	}
+
+	/**
+	 * Writes values into a growing array.
+	 */
+	private static final class Encoder
+	{
+		private final Map<String, Integer> keys = new HashMap<>();
+		private byte[] bytes = new byte[256];
+		private int size;
+
+		void value(Object value)
+		{
+			if (value == null)
+			{
+				write(NULL);
+			}
+			else if (value instanceof String)
+			{
+				write(STRING);
+				string((String) value, false);
+			}
+			else if (value instanceof Boolean)
+			{
+				write(((Boolean) value) ? TRUE : FALSE);
+			}
+			else if ((value instanceof Integer) || (value instanceof Short) || (value instanceof Byte))
+			{
+				write(INT);
+				varint(zigzag(((Number) value).intValue()));
+			}
+			else if (value instanceof Long)
+			{
+				integer((Long) value);
+			}
+			else if ((value instanceof Double) || (value instanceof BigDecimal))
+			{
+				real(((Number) value).doubleValue());
+			}
+			else if (value instanceof Float)
+			{
+				// as JSON would print and parse it back
+				real(Double.parseDouble(value.toString()));
+			}
+			else if (value instanceof BigInteger)
+			{
+				big((BigInteger) value);
+			}
+			else if (value instanceof Map)
+			{
+				final Map<?, ?> map = (Map<?, ?>) value;
+				write(OBJECT);
+				varint(map.size());
+				int count = 0;
+				for (final Map.Entry<?, ?> entry : map.entrySet())
+				{
+					key(String.valueOf(entry.getKey()));
+					value(entry.getValue());
+					count++;
+				}
+				verifyCount(count, map.size());
+			}
+			else if (value instanceof Collection)
+			{
+				final Collection<?> collection = (Collection<?>) value;
+				write(ARRAY);
+				varint(collection.size());
+				int count = 0;
+				for (final Object element : collection)
+				{
+					value(element);
+					count++;
+				}
+				verifyCount(count, collection.size());
+			}
+			else if (value instanceof Object[])
+			{
+				final Object[] array = (Object[]) value;
+				write(ARRAY);
+				varint(array.length);
+				for (final Object element : array)
+				{
+					value(element);
+				}
+			}
+			else if (value instanceof Character)
+			{
+				write(STRING);
+				string(value.toString(), false);
+			}
+			else if (value instanceof byte[])
+			{
+				// Jackson writes binary data as a base64 string
+				write(STRING);
+				string(Base64.getEncoder().encodeToString((byte[]) value), false);
+			}
+			else
+			{
+				final Object converted = JsonMappers.mapper().convertValue(value, Object.class);
+				if ((converted != null) && (converted.getClass() == value.getClass()))
+				{
+					throw new IllegalArgumentException("Cannot encode " + value.getClass().getName() + ".");
+				}
+				value(converted);
+			}
+		}
+
+		private void integer(long value)
+		{
+			if ((int) value == value)
+			{
+				write(INT);
+				varint(zigzag((int) value));
+			}
+			else
+			{
+				write(LONG);
+				varint((value << 1) ^ (value >> 63));
+			}
+		}
+
+		private void big(BigInteger value)
+		{
+			if ((value.compareTo(MIN_LONG) >= 0) && (value.compareTo(MAX_LONG) <= 0))
+			{
+				integer(value.longValue());
+				return;
+			}
+			final byte[] magnitude = value.toByteArray();
+			write(BIG_INTEGER);
+			varint(magnitude.length);
+			write(magnitude, magnitude.length);
+		}
+
+		private void real(double value)
+		{
+			write(DOUBLE);
+			ensure(8);
+			final long bits = Double.doubleToRawLongBits(value);
+			for (int shift = 56; shift >= 0; shift -= 8)
+			{
+				bytes[size++] = (byte) (bits >>> shift);
+			}
+		}
+
+		private void key(String key)
+		{
+			final Integer index = keys.get(key);
+			if (index != null)
+			{
+				varint(((long) index << 1) | 1L);
+				return;
+			}
+			keys.put(key, keys.size());
+			string(key, true);
+		}
+
+		/**
+		 * Write the length of the string, shifted left by one for keys, then its UTF-8 bytes. ASCII strings are copied char by
+		 * char, without an intermediate array.
+		 */
+		private void string(String value, boolean key)
+		{
+			final int length = value.length();
+			int i = 0;
+			while ((i < length) && (value.charAt(i) < 0x80))
+			{
+				i++;
+			}
+			if (i == length)
+			{
+				varint(key ? ((long) length << 1) : length);
+				ensure(length);
+				for (int c = 0; c < length; c++)
+				{
+					bytes[size++] = (byte) value.charAt(c);
+				}
+			}
+			else
+			{
+				final byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+				varint(key ? ((long) utf8.length << 1) : utf8.length);
+				write(utf8, utf8.length);
+			}
+		}
+
+		private void verifyCount(int count, int expected)
+		{
+			if (count != expected)
+			{
+				throw new ConcurrentModificationException();
+			}
+		}
+
+		private static long zigzag(int value)
+		{
+			return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+		}
+
+		private void varint(long value)
+		{
+			ensure(10);
+			long v = value;
+			while ((v & ~0x7FL) != 0L)
+			{
+				bytes[size++] = (byte) ((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			bytes[size++] = (byte) v;
+		}
+
+		void write(int b)
+		{
+			ensure(1);
+			bytes[size++] = (byte) b;
+		}
+
+		private void write(byte[] b, int length)
+		{
+			ensure(length);
+			System.arraycopy(b, 0, bytes, size, length);
+			size += length;
+		}
+
+		private void ensure(int length)
+		{
+			if ((size + length) > bytes.length)
+			{
+				bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + length));
+			}
+		}
+	}
+
+	/**
+	 * Reads values from a buffer.
+	 */
+	private static final class Decoder
+	{
+		private final ByteBuffer in;
+		private final List<String> keys = new ArrayList<>();
+		private byte[] scratch = new byte[64];
+		private int depth = 1;
+
+		Decoder(ByteBuffer in)
+		{
+			this.in = in;
+		}
+
+		Object value() throws IOException
+		{
+			final int tag = in.get();
+			switch (tag)
+			{
+				case NULL:
+					return null;
+				case FALSE:
+					return Boolean.FALSE;
+				case TRUE:
+					return Boolean.TRUE;
+				case INT:
+				{
+					final long v = varint();
+					if ((v >>> 32) != 0L)
+					{
+						throw new IOException("Int " + v + " exceeds 32 bits at position " + in.position() + ".");
+					}
+					return ((int) v >>> 1) ^ -((int) v & 1);
+				}
+				case LONG:
+				{
+					final long v = varint();
+					return (v >>> 1) ^ -(v & 1L);
+				}
+				case DOUBLE:
+					return in.getDouble();
+				case BIG_INTEGER:
+				{
+					final int length = length();
+					if (length == 0)
+					{
+						throw new IOException("Empty big integer at position " + in.position() + ".");
+					}
+					final byte[] magnitude = new byte[length];
+					in.get(magnitude);
+					return new BigInteger(magnitude);
+				}
+				case STRING:
+					return string(length());
+				case OBJECT:
+				{
+					final int count = count();
+					final Map<String, Object> map = new LinkedHashMap<>((int) (count / 0.75f) + 1);
+					enter();
+					for (int i = 0; i < count; i++)
+					{
+						final String key = key();
+						map.put(key, value());
+					}
+					depth--;
+					return map;
+				}
+				case ARRAY:
+				{
+					final int count = count();
+					final List<Object> list = new ArrayList<>(count);
+					enter();
+					for (int i = 0; i < count; i++)
+					{
+						list.add(value());
+					}
+					depth--;
+					return list;
+				}
+				default:
+					throw new IOException("Unknown tag " + tag + " at position " + (in.position() - 1) + ".");
+			}
+		}
+
+		private void enter() throws IOException
+		{
+			if (++depth > MAX_DEPTH)
+			{
+				throw new IOException("Nesting deeper than " + MAX_DEPTH + " at position " + in.position() + ".");
+			}
+		}
+
+		String key() throws IOException
+		{
+			final long n = varint();
+			if ((n & 1L) == 0L)
+			{
+				final String key = string(checked(n >>> 1));
+				keys.add(key);
+				return key;
+			}
+			if ((n >>> 1) >= keys.size())
+			{
+				throw new IOException("Unknown key reference " + (n >>> 1) + ".");
+			}
+			return keys.get((int) (n >>> 1));
+		}
+
+		private String string(int length)
+		{
+			if (in.hasArray())
+			{
+				final String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+				in.position(in.position() + length);
+				return s;
+			}
+			if (length > scratch.length)
+			{
+				scratch = new byte[Math.max(length, scratch.length * 2)];
+			}
+			in.get(scratch, 0, length);
+			return new String(scratch, 0, length, StandardCharsets.UTF_8);
+		}
+
+		/**
+		 * @return a count of elements, each at least one byte long, so that a corrupt count cannot allocate more than the message
+		 */
+		int count() throws IOException
+		{
+			return checked(varint());
+		}
+
+		private int length() throws IOException
+		{
+			return checked(varint());
+		}
+
+		private int checked(long length) throws IOException
+		{
+			if ((length < 0L) || (length > in.remaining()))
+			{
+				throw new IOException("Length " + length + " exceeds the remaining " + in.remaining() + " bytes.");
+			}
+			return (int) length;
+		}
+
+		private long varint() throws IOException
+		{
+			long value = 0L;
+			for (int shift = 0; shift < 64; shift += 7)
+			{
+				final byte b = in.get();
+				value |= (long) (b & 0x7F) << shift;
+				if (b >= 0)
+				{
+					return value;
+				}
+			}
+			throw new IOException("Malformed varint at position " + in.position() + ".");
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package com.gregrode.util;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The <code>ByteBufferStreams</code> class adapts {@link ByteBuffer} objects, heap or direct, to the stream interfaces expected by
+ * Jackson. Bytes are transferred straight between the buffer and the caller's array, never through an intermediate copy.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class ByteBufferStreams
+{
+
+	private ByteBufferStreams()
+	{
+	}
+
+	/**
+	 * Create an {@link OutputStream} that writes into the given buffer starting at its current position. Writing past the limit
+	 * of the buffer throws a {@link java.nio.BufferOverflowException}.
+	 *
+	 * @param buffer
+	 *            the buffer to write into
+	 * @return {@link OutputStream}
+	 */
+	static OutputStream output(ByteBuffer buffer)
+	{
+		return new Output(buffer);
+	}
+
+	/**
+	 * Create an {@link InputStream} that reads the remaining bytes of the given buffer. The buffer itself is left untouched; a
+	 * duplicate tracks the read position.
+	 *
+	 * @param buffer
+	 *            the buffer to read from
+	 * @return {@link InputStream}
+	 */
+	static InputStream input(ByteBuffer buffer)
+	{
+		return new Input(buffer.duplicate());
+	}
+
+	private static final class Input extends InputStream
+	{
+		private final ByteBuffer buffer;
+
+		Input(ByteBuffer buffer)
+		{
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read()
+		{
+			return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length)
+		{
+			if (length == 0)
+			{
+				return 0;
+			}
+			if (!buffer.hasRemaining())
+			{
+				return -1;
+			}
+			final int count = Math.min(length, buffer.remaining());
+			buffer.get(bytes, offset, count);
+			return count;
+		}
+
+		@Override
+		public long skip(long count)
+		{
+			final int skipped = (int) Math.max(0, Math.min(count, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+
+		@Override
+		public int available()
+		{
+			return buffer.remaining();
+		}
+	}
+
+	private static final class Output extends OutputStream
+	{
+		private final ByteBuffer buffer;
+
+		Output(ByteBuffer buffer)
+		{
+			this.buffer = buffer;
+		}
+
+		@Override
+		public void write(int b)
+		{
+			buffer.put((byte) b);
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int length)
+		{
+			buffer.put(bytes, offset, length);
+		}
+	}
+}
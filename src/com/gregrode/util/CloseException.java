@@ -0,0 +1,36 @@
+package com.gregrode.util;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The <code>CloseException</code> is thrown by {@link Things#close(Duration, AutoCloseable...)} when at least one resource failed
+ * to close or did not close before the deadline. Every failure is attached as a suppressed exception, resources still closing at
+ * the deadline as a {@link java.util.concurrent.TimeoutException}, and the time each resource took to close is kept alongside.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public class CloseException extends Exception
+{
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<Duration> durations;
+
+	CloseException(String message, List<Duration> durations)
+	{
+		super(message);
+		this.durations = Collections.unmodifiableList(durations);
+	}
+
+	/**
+	 * @return the time each resource took to close, whether it failed or not, in the order the resources were given;
+	 *         {@code null} for a resource still closing at the deadline and {@link Duration#ZERO} for a {@code null} resource
+	 */
+	public List<Duration> getDurations()
+	{
+		return durations;
+	}
+}
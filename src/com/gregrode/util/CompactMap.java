@@ -0,0 +1,252 @@
+package com.gregrode.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The <code>CompactMap</code> class is an immutable {@link Map} held in a single array of interleaved keys and values. Up to
+ * {@value #LINEAR_LIMIT} entries are stored back to back in insertion order and looked up by a linear scan, which beats hashing
+ * at that size; larger maps are stored in an open-addressing table probed linearly. Either way, there is no node or entry object
+ * per mapping, so a map costs a fraction of a {@link java.util.HashMap} of the same content.
+ * <p>
+ * Keys must not be {@code null}; values may be. When a key is given more than once, its first value is kept, as with the other
+ * {@code toMap} methods of {@link Things}. Every mutating method throws {@link UnsupportedOperationException}.
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the values
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class CompactMap<K, V> extends AbstractMap<K, V>
+{
+
+	private static final int LINEAR_LIMIT = 8;
+	private static final CompactMap<Object, Object> EMPTY = new CompactMap<>(new Object[0], 0, false);
+
+	/**
+	 * Keys at even positions, their values at the following odd positions; empty slots of a hashed table have a {@code null} key.
+	 */
+	private final Object[] table;
+	private final int size;
+	private final boolean hashed;
+
+	private CompactMap(Object[] table, int size, boolean hashed)
+	{
+		this.table = table;
+		this.size = size;
+		this.hashed = hashed;
+	}
+
+	/**
+	 * Create an immutable copy of the given map.
+	 *
+	 * @param map
+	 *            the map to copy; it must not have {@code null} keys
+	 * @param <K>
+	 *            the type of the keys
+	 * @param <V>
+	 *            the type of the values
+	 * @return {@link CompactMap}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K, V> CompactMap<K, V> copyOf(Map<? extends K, ? extends V> map)
+	{
+		Things.verify(map, "Map not specified.");
+		if (map instanceof CompactMap)
+		{
+			return (CompactMap<K, V>) map;
+		}
+		final Object[] keysAndValues = new Object[map.size() * 2];
+		int i = 0;
+		for (final Entry<? extends K, ? extends V> entry : map.entrySet())
+		{
+			keysAndValues[i++] = entry.getKey();
+			keysAndValues[i++] = entry.getValue();
+		}
+		return of(keysAndValues);
+	}
+
+	/**
+	 * Create a map from the given keys and values, interleaved. The array is used as the storage of small maps, so it must not be
+	 * modified afterwards.
+	 *
+	 * @param keysAndValues
+	 *            each key followed by its value
+	 * @return {@link CompactMap}
+	 */
+	@SuppressWarnings("unchecked")
+	static <K, V> CompactMap<K, V> of(Object... keysAndValues)
+	{
+		final int pairs = keysAndValues.length / 2;
+		if (pairs == 0)
+		{
+			return (CompactMap<K, V>) EMPTY;
+		}
+		if (pairs <= LINEAR_LIMIT)
+		{
+			int size = 0;
+			for (int i = 0; i < keysAndValues.length; i += 2)
+			{
+				final Object key = Things.verify(keysAndValues[i], "Key not specified.");
+				if (linearIndexOf(keysAndValues, size, key) < 0)
+				{
+					keysAndValues[size * 2] = key;
+					keysAndValues[(size * 2) + 1] = keysAndValues[i + 1];
+					size++;
+				}
+			}
+			// the slots left over by duplicate keys would otherwise keep their keys and values reachable
+			Arrays.fill(keysAndValues, size * 2, keysAndValues.length, null);
+			return new CompactMap<>(keysAndValues, size, false);
+		}
+		final int capacity = Integer.highestOneBit((pairs * 2) - 1) << 1;
+		final Object[] table = new Object[capacity * 2];
+		int size = 0;
+		for (int i = 0; i < keysAndValues.length; i += 2)
+		{
+			final Object key = Things.verify(keysAndValues[i], "Key not specified.");
+			int slot = hash(key) & (capacity - 1);
+			while ((table[slot * 2] != null) && !table[slot * 2].equals(key))
+			{
+				slot = (slot + 1) & (capacity - 1);
+			}
+			if (table[slot * 2] == null)
+			{
+				table[slot * 2] = key;
+				table[(slot * 2) + 1] = keysAndValues[i + 1];
+				size++;
+			}
+		}
+		return new CompactMap<>(table, size, true);
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key)
+	{
+		final int index = indexOf(key);
+		return (index < 0) ? null : (V) table[index + 1];
+	}
+
+	@Override
+	public Set<Entry<K, V>> entrySet()
+	{
+		return new AbstractSet<Entry<K, V>>()
+		{
+			@Override
+			public int size()
+			{
+				return size;
+			}
+
+			@Override
+			public Iterator<Entry<K, V>> iterator()
+			{
+				return new EntryIterator();
+			}
+		};
+	}
+
+	/**
+	 * @return the position of the given key in the table, or {@code -1} if it is not present
+	 */
+	private int indexOf(Object key)
+	{
+		if (key == null)
+		{
+			return -1;
+		}
+		if (!hashed)
+		{
+			return linearIndexOf(table, size, key);
+		}
+		final int mask = (table.length / 2) - 1;
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask)
+		{
+			final Object k = table[slot * 2];
+			if (k == null)
+			{
+				return -1;
+			}
+			if (k.equals(key))
+			{
+				return slot * 2;
+			}
+		}
+	}
+
+	private static int linearIndexOf(Object[] table, int size, Object key)
+	{
+		for (int i = 0; i < (size * 2); i += 2)
+		{
+			if (table[i].equals(key))
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int hash(Object key)
+	{
+		final int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private final class EntryIterator implements Iterator<Entry<K, V>>
+	{
+		private int next = advance(0);
+
+		@Override
+		public boolean hasNext()
+		{
+			return next < table.length;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Entry<K, V> next()
+		{
+			if (next >= table.length)
+			{
+				throw new NoSuchElementException();
+			}
+			final Entry<K, V> entry = new SimpleImmutableEntry<>((K) table[next], (V) table[next + 1]);
+			next = advance(next + 2);
+			return entry;
+		}
+
+		private int advance(int from)
+		{
+			final int end = hashed ? table.length : (size * 2);
+			for (int i = from; i < end; i += 2)
+			{
+				if (table[i] != null)
+				{
+					return i;
+				}
+			}
+			return table.length;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.gregrode.util;
+
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * The <code>CountingStreams</code> class wraps the streams and writers handed to {@link Things} so the size of the JSON written
+ * through them can be reported to {@link Metrics} and the Flight Recorder. Jackson writes its output in buffered segments, so
+ * counting costs one addition per segment rather than per character.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class CountingStreams
+{
+
+	private CountingStreams()
+	{
+	}
+
+	/**
+	 * Counts the bytes written through it to the wrapped stream.
+	 */
+	static final class Output extends FilterOutputStream
+	{
+		private long count;
+
+		Output(OutputStream out)
+		{
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException
+		{
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException
+		{
+			out.write(b, off, len);
+			count += len;
+		}
+
+		/**
+		 * @return the number of bytes written so far
+		 */
+		long count()
+		{
+			return count;
+		}
+	}
+
+	/**
+	 * Counts the characters written through it to the wrapped writer.
+	 */
+	static final class Characters extends FilterWriter
+	{
+		private long count;
+
+		Characters(Writer out)
+		{
+			super(out);
+		}
+
+		@Override
+		public void write(int c) throws IOException
+		{
+			out.write(c);
+			count++;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException
+		{
+			out.write(cbuf, off, len);
+			count += len;
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException
+		{
+			out.write(str, off, len);
+			count += len;
+		}
+
+		/**
+		 * @return the number of characters written so far
+		 */
+		long count()
+		{
+			return count;
+		}
+	}
+}
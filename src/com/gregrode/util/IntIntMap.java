@@ -0,0 +1,444 @@
+package com.gregrode.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The <code>IntIntMap</code> class is an open-addressing hash map from {@code int} keys to {@code int} values. Keys and values
+ * are stored in flat parallel arrays probed linearly, so no key is boxed and no node is allocated per entry. Removal uses
+ * backward shifting, which keeps lookups free of tombstones.
+ * <p>
+ * {@link #asMap()} exposes the map through the {@link Map} interface for interoperability; its views do not support removal
+ * through iterators. The map is not thread-safe.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class IntIntMap
+{
+
+	private static final int MIN_CAPACITY = 8;
+
+	private int[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+	private boolean hasZeroKey;
+	private int zeroValue;
+
+	/**
+	 * Create an empty map.
+	 */
+	public IntIntMap()
+	{
+		this(0);
+	}
+
+	/**
+	 * Create an empty map sized to hold the given number of entries without resizing.
+	 *
+	 * @param expectedSize
+	 *            the expected number of entries
+	 */
+	public IntIntMap(int expectedSize)
+	{
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * @return the number of entries in the map
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if the map has no entries
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Check whether the map holds the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return boolean
+	 */
+	public boolean containsKey(int key)
+	{
+		return (key == 0) ? hasZeroKey : (slot(key) >= 0);
+	}
+
+	/**
+	 * Get the value mapped to the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value, or {@code 0} if the key is not present
+	 */
+	public int get(int key)
+	{
+		return getOrDefault(key, 0);
+	}
+
+	/**
+	 * Get the value mapped to the given key, or the given default if the key is not present.
+	 *
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value returned when the key is not present
+	 * @return the value
+	 */
+	public int getOrDefault(int key, int defaultValue)
+	{
+		if (key == 0)
+		{
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		final int slot = slot(key);
+		return (slot < 0) ? defaultValue : values[slot];
+	}
+
+	/**
+	 * Map the given key to the given value, replacing any previous value.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value, or {@code 0} if the key was not present
+	 */
+	public int put(int key, int value)
+	{
+		return put(key, value, true);
+	}
+
+	/**
+	 * Map the given key to the given value only if the key is not present yet.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the current value, or {@code 0} if the key was not present and the value was stored
+	 */
+	public int putIfAbsent(int key, int value)
+	{
+		return put(key, value, false);
+	}
+
+	/**
+	 * Remove the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the removed value, or {@code 0} if the key was not present
+	 */
+	public int remove(int key)
+	{
+		if (key == 0)
+		{
+			if (!hasZeroKey)
+			{
+				return 0;
+			}
+			final int previous = zeroValue;
+			hasZeroKey = false;
+			zeroValue = 0;
+			size--;
+			return previous;
+		}
+		final int slot = slot(key);
+		if (slot < 0)
+		{
+			return 0;
+		}
+		final int previous = values[slot];
+		shift(slot);
+		size--;
+		return previous;
+	}
+
+	/**
+	 * Remove every entry, keeping the current capacity.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, 0);
+		hasZeroKey = false;
+		zeroValue = 0;
+		size = 0;
+	}
+
+	/**
+	 * Perform the given action for each entry of the map.
+	 *
+	 * @param action
+	 *            the action
+	 */
+	public void forEach(EntryConsumer action)
+	{
+		Things.verify(action, "Action not specified.");
+		if (hasZeroKey)
+		{
+			action.accept(0, zeroValue);
+		}
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (keys[i] != 0)
+			{
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Get a {@link Map} view backed by this map. Keys and values are boxed as they cross the view.
+	 *
+	 * @return {@link Map}
+	 */
+	public Map<Integer, Integer> asMap()
+	{
+		return new MapView();
+	}
+
+	private int put(int key, int value, boolean replace)
+	{
+		if (key == 0)
+		{
+			final int previous = hasZeroKey ? zeroValue : 0;
+			if (!hasZeroKey)
+			{
+				hasZeroKey = true;
+				zeroValue = value;
+				size++;
+			}
+			else if (replace)
+			{
+				zeroValue = value;
+			}
+			return previous;
+		}
+		int slot = hash(key) & mask;
+		while (keys[slot] != 0)
+		{
+			if (keys[slot] == key)
+			{
+				final int previous = values[slot];
+				if (replace)
+				{
+					values[slot] = value;
+				}
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > (keys.length >> 1))
+		{
+			rehash(keys.length << 1);
+		}
+		return 0;
+	}
+
+	private int slot(int key)
+	{
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				return slot;
+			}
+			if (keys[slot] == 0)
+			{
+				return -1;
+			}
+		}
+	}
+
+	private void shift(int gap)
+	{
+		for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask)
+		{
+			final int ideal = hash(keys[next]) & mask;
+			if (((next - ideal) & mask) >= ((next - gap) & mask))
+			{
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		keys[gap] = 0;
+		values[gap] = 0;
+	}
+
+	private void rehash(int capacity)
+	{
+		final int[] oldKeys = keys;
+		final int[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			final int key = oldKeys[i];
+			if (key != 0)
+			{
+				int slot = hash(key) & mask;
+				while (keys[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new int[capacity];
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int capacityFor(int expectedSize)
+	{
+		final long needed = Math.max(MIN_CAPACITY, 2L * expectedSize + 1);
+		if (needed > (1 << 30))
+		{
+			throw new IllegalArgumentException("Too many entries: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	private static int hash(int key)
+	{
+		final int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Callback for {@link IntIntMap#forEach(EntryConsumer)}.
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer
+	{
+		/**
+		 * @param key
+		 *            the key of the entry
+		 * @param value
+		 *            the value of the entry
+		 */
+		void accept(int key, int value);
+	}
+
+	private final class MapView extends AbstractMap<Integer, Integer>
+	{
+		@Override
+		public int size()
+		{
+			return size;
+		}
+
+		@Override
+		public boolean containsKey(Object key)
+		{
+			return (key instanceof Integer) && IntIntMap.this.containsKey((Integer) key);
+		}
+
+		@Override
+		public Integer get(Object key)
+		{
+			return containsKey(key) ? IntIntMap.this.get((Integer) key) : null;
+		}
+
+		@Override
+		public Integer put(Integer key, Integer value)
+		{
+			final boolean present = IntIntMap.this.containsKey(key);
+			final int previous = IntIntMap.this.put(key, value);
+			return present ? previous : null;
+		}
+
+		@Override
+		public Integer remove(Object key)
+		{
+			return containsKey(key) ? IntIntMap.this.remove((Integer) key) : null;
+		}
+
+		@Override
+		public void clear()
+		{
+			IntIntMap.this.clear();
+		}
+
+		@Override
+		public Set<Entry<Integer, Integer>> entrySet()
+		{
+			return new AbstractSet<Entry<Integer, Integer>>()
+			{
+				@Override
+				public int size()
+				{
+					return size;
+				}
+
+				@Override
+				public Iterator<Entry<Integer, Integer>> iterator()
+				{
+					return new EntryIterator();
+				}
+			};
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<Integer, Integer>>
+	{
+		private boolean zeroPending = hasZeroKey;
+		private int next = advance(0);
+
+		@Override
+		public boolean hasNext()
+		{
+			return zeroPending || (next < keys.length);
+		}
+
+		@Override
+		public Entry<Integer, Integer> next()
+		{
+			if (zeroPending)
+			{
+				zeroPending = false;
+				return new AbstractMap.SimpleImmutableEntry<>(0, zeroValue);
+			}
+			if (next >= keys.length)
+			{
+				throw new NoSuchElementException();
+			}
+			final Entry<Integer, Integer> entry = new AbstractMap.SimpleImmutableEntry<>(keys[next], values[next]);
+			next = advance(next + 1);
+			return entry;
+		}
+
+		private int advance(int from)
+		{
+			int i = from;
+			while ((i < keys.length) && (keys[i] == 0))
+			{
+				i++;
+			}
+			return i;
+		}
+	}
+}
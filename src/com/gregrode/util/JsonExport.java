@@ -0,0 +1,264 @@
+package com.gregrode.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * The <code>JsonExport</code> class writes large collections as a JSON array, or as newline-delimited JSON, for
+ * {@link Things#toJSON(Collection, OutputStream)} and {@link Things#toNDJSON(Collection, OutputStream)}. The collection is cut
+ * into chunks of {@value #CHUNK} items that are encoded concurrently on the common fork-join pool, each into a byte buffer of
+ * its own, while the calling thread writes the encoded chunks to the output in order.
+ * <p>
+ * At most a few chunks per worker of the pool are in flight at once, and their buffers are recycled once written, so memory
+ * stays bounded by the size of those chunks however large the collection is. On a single processor the chunks are encoded by the
+ * calling thread instead.
+ * <p>
+ * The output is always compact, whether or not the shared mapper has {@link SerializationFeature#INDENT_OUTPUT}, so that the
+ * chunks join up and every NDJSON record stays on one line. A chunk of a JSON array is serialized as a list, so its elements
+ * are written exactly as the shared mapper writes the elements of a {@code java.util} collection. A collection of any other
+ * class, or a mapper with default typing, may serialize the collection itself differently, through a custom serializer or
+ * type information; such collections are written whole by a single writer instead.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class JsonExport
+{
+
+	private static final int CHUNK = 512;
+
+	private JsonExport()
+	{
+	}
+
+	/**
+	 * Write the given items to the given stream, which is flushed but not closed.
+	 *
+	 * @param items
+	 *            the items
+	 * @param out
+	 *            the stream to write to
+	 * @param ndjson
+	 *            whether to write one item per line rather than a JSON array
+	 * @return the number of bytes written
+	 * @throws IOException
+	 *             if an item cannot be serialized or the stream cannot be written to; the output is then incomplete.
+	 */
+	static long write(Collection<?> items, OutputStream out, boolean ndjson) throws IOException
+	{
+		if (!ndjson && !chunkable(items))
+		{
+			final CountingStreams.Output counting = new CountingStreams.Output(out);
+			try (JsonGenerator generator = JsonMappers.generator(counting))
+			{
+				compact(JsonMappers.writer(items.getClass())).writeValue(generator, items);
+			}
+			return counting.count();
+		}
+		long written = 0L;
+		if (!ndjson)
+		{
+			out.write('[');
+			written += 2L;
+		}
+		if (items.size() <= CHUNK)
+		{
+			final Object[] elements = items.toArray();
+			try
+			{
+				written += write(new Chunk().encode(elements, elements.length, ndjson), out, true, ndjson);
+			}
+			catch (final UncheckedIOException e)
+			{
+				throw e.getCause();
+			}
+		}
+		else
+		{
+			written += writeChunks(items.iterator(), out, ndjson);
+		}
+		if (!ndjson)
+		{
+			out.write(']');
+		}
+		out.flush();
+		return written;
+	}
+
+	/**
+	 * @return whether the elements of the given collection can be written in chunks: the shared mapper writes a
+	 *         {@code java.util} collection as a plain array of its elements, unless default typing wraps it in type information
+	 */
+	private static boolean chunkable(Collection<?> items)
+	{
+		final ObjectMapper mapper = JsonMappers.mapper();
+		return items.getClass().getName().startsWith("java.util.")
+				&& (mapper.getSerializationConfig().getDefaultTyper(mapper.constructType(items.getClass())) == null);
+	}
+
+	private static ObjectWriter compact(ObjectWriter writer)
+	{
+		return writer.without(SerializationFeature.INDENT_OUTPUT).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	private static long writeChunks(Iterator<?> iterator, OutputStream out, boolean ndjson) throws IOException
+	{
+		// on a single core there is nothing to overlap: chunks are encoded by the calling thread, one buffer reused throughout
+		final boolean parallel = Runtime.getRuntime().availableProcessors() > 1;
+		final Executor executor = parallel ? ForkJoinPool.commonPool() : Runnable::run;
+		final int maxInFlight = parallel ? ((ForkJoinPool.getCommonPoolParallelism() * 2) + 1) : 1;
+		final ArrayDeque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>(maxInFlight);
+		final ArrayDeque<Chunk> free = new ArrayDeque<>(maxInFlight);
+		boolean first = true;
+		long written = 0L;
+		try
+		{
+			while (iterator.hasNext())
+			{
+				final Object[] elements = new Object[CHUNK];
+				int count = 0;
+				while ((count < CHUNK) && iterator.hasNext())
+				{
+					elements[count++] = iterator.next();
+				}
+				if (inFlight.size() == maxInFlight)
+				{
+					final Chunk done = join(inFlight.poll());
+					written += write(done, out, first, ndjson);
+					free.add(done);
+					first = false;
+				}
+				final Chunk chunk = free.isEmpty() ? new Chunk() : free.poll();
+				final int size = count;
+				inFlight.add(CompletableFuture.supplyAsync(() -> chunk.encode(elements, size, ndjson), executor));
+			}
+			while (!inFlight.isEmpty())
+			{
+				written += write(join(inFlight.poll()), out, first, ndjson);
+				first = false;
+			}
+			return written;
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			inFlight.forEach(future -> future.cancel(false));
+			throw e;
+		}
+	}
+
+	/**
+	 * Write the given chunk, a JSON array when not writing NDJSON, without its brackets.
+	 *
+	 * @return the number of bytes written
+	 */
+	private static int write(Chunk chunk, OutputStream out, boolean first, boolean ndjson) throws IOException
+	{
+		if (ndjson)
+		{
+			chunk.writeTo(out);
+			return chunk.size();
+		}
+		if (!first)
+		{
+			out.write(',');
+		}
+		out.write(chunk.bytes(), 1, chunk.size() - 2);
+		return chunk.size() - (first ? 2 : 1);
+	}
+
+	private static Chunk join(CompletableFuture<Chunk> future) throws IOException
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (final CompletionException e)
+		{
+			final Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException)
+			{
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * A reusable buffer holding the encoded items of one chunk, as a JSON array, or each followed by a line break.
+	 */
+	private static final class Chunk extends ByteArrayOutputStream
+	{
+		Chunk()
+		{
+			super(8192);
+		}
+
+		byte[] bytes()
+		{
+			return buf;
+		}
+
+		Chunk encode(Object[] elements, int count, boolean ndjson)
+		{
+			reset();
+			try (JsonGenerator generator = JsonMappers.generator(this))
+			{
+				if (!ndjson)
+				{
+					compact(JsonMappers.writer(List.class)).writeValue(generator, Arrays.asList(elements).subList(0, count));
+					return this;
+				}
+				generator.setRootValueSeparator(null);
+				Class<?> type = null;
+				ObjectWriter writer = null;
+				for (int i = 0; i < count; i++)
+				{
+					final Object element = elements[i];
+					if (element == null)
+					{
+						generator.writeNull();
+					}
+					else
+					{
+						if (element.getClass() != type)
+						{
+							type = element.getClass();
+							writer = compact(JsonMappers.writer(type));
+						}
+						writer.writeValue(generator, element);
+					}
+					generator.writeRaw('\n');
+				}
+			}
+			catch (final IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			return this;
+		}
+	}
+}
@@ -0,0 +1,363 @@
+package com.gregrode.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * The <code>JsonMappers</code> class holds the process-wide {@link ObjectMapper} used by {@link Things} and caches the immutable
+ * {@link ObjectReader} and {@link ObjectWriter} instances derived from it, one per target type. Readers and writers are thread-safe
+ * and are created at most once per type, so the serializer/deserializer lookups are only paid the first time a type is seen.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class JsonMappers
+{
+
+	private static final int DEFAULT_FEATURES = new ObjectMapper().getDeserializationConfig().getDeserializationFeatures();
+	private static volatile Cache cache = new Cache(new ObjectMapper());
+
+	private JsonMappers()
+	{
+	}
+
+	/**
+	 * Get the shared {@link ObjectMapper}. The mapper must not be reconfigured once it is in use; call {@link #use(ObjectMapper)}
+	 * with a fully configured mapper instead.
+	 *
+	 * @return {@link ObjectMapper}
+	 */
+	public static ObjectMapper mapper()
+	{
+		return cache.mapper;
+	}
+
+	/**
+	 * Replace the shared {@link ObjectMapper} with the given, fully configured, mapper. Every cached reader and writer is discarded
+	 * and rebuilt lazily from the new mapper.
+	 *
+	 * @param mapper
+	 *            the mapper to use
+	 */
+	public static void use(ObjectMapper mapper)
+	{
+		cache = new Cache(Things.verify(mapper, "Object mapper not specified."));
+	}
+
+	/**
+	 * Get the cached {@link ObjectReader} that binds JSON content to the given type.
+	 *
+	 * @param type
+	 *            the target type
+	 * @return {@link ObjectReader}
+	 */
+	public static ObjectReader reader(Class<?> type)
+	{
+		return cache.reader(Things.verify(type, "Type not specified."));
+	}
+
+	/**
+	 * Get the cached {@link ObjectWriter} for the given type.
+	 *
+	 * @param type
+	 *            the root type of the values that will be written
+	 * @return {@link ObjectWriter}
+	 */
+	public static ObjectWriter writer(Class<?> type)
+	{
+		return cache.writer(Things.verify(type, "Type not specified."));
+	}
+
+	/**
+	 * Create a streaming parser over the given JSON. Single-quoted names and values are accepted natively, so the content never
+	 * needs to be rewritten before it is parsed.
+	 *
+	 * @param json
+	 *            the JSON String
+	 * @return {@link JsonParser}
+	 * @throws IOException
+	 */
+	static JsonParser parser(String json) throws IOException
+	{
+		return lenient(mapper().getFactory().createParser(json));
+	}
+
+	/**
+	 * Create a streaming parser over the given UTF-8 encoded JSON. The bytes are parsed in place, without decoding them into a
+	 * String first.
+	 *
+	 * @param json
+	 *            the JSON bytes
+	 * @param offset
+	 *            the offset of the first byte
+	 * @param length
+	 *            the number of bytes
+	 * @return {@link JsonParser}
+	 * @throws IOException
+	 */
+	static JsonParser parser(byte[] json, int offset, int length) throws IOException
+	{
+		return lenient(mapper().getFactory().createParser(json, offset, length));
+	}
+
+	/**
+	 * Create a streaming parser over the remaining bytes of the given buffer. Heap buffers are parsed in place from their backing
+	 * array; direct and read-only buffers are read in chunks. The position of the buffer is not changed.
+	 *
+	 * @param json
+	 *            the JSON bytes
+	 * @return {@link JsonParser}
+	 * @throws IOException
+	 */
+	static JsonParser parser(ByteBuffer json) throws IOException
+	{
+		if (json.hasArray())
+		{
+			return parser(json.array(), json.arrayOffset() + json.position(), json.remaining());
+		}
+		return parser(ByteBufferStreams.input(json));
+	}
+
+	/**
+	 * Create a streaming parser over the given stream. The parser closes the stream when it is closed.
+	 *
+	 * @param json
+	 *            the JSON stream
+	 * @return {@link JsonParser}
+	 * @throws IOException
+	 */
+	static JsonParser parser(InputStream json) throws IOException
+	{
+		return lenient(mapper().getFactory().createParser(json));
+	}
+
+	/**
+	 * Create a streaming parser over the given characters. The parser closes the reader when it is closed.
+	 *
+	 * @param json
+	 *            the JSON reader
+	 * @return {@link JsonParser}
+	 * @throws IOException
+	 */
+	static JsonParser parser(Reader json) throws IOException
+	{
+		return lenient(mapper().getFactory().createParser(json));
+	}
+
+	/**
+	 * Create a UTF-8 generator over the given stream. The generator encodes through the per-thread buffers Jackson recycles and
+	 * leaves the stream open when it is closed.
+	 *
+	 * @param out
+	 *            the stream to write to
+	 * @return {@link JsonGenerator}
+	 * @throws IOException
+	 */
+	static JsonGenerator generator(OutputStream out) throws IOException
+	{
+		return mapper().getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
+	/**
+	 * Create a generator over the given writer. The generator leaves the writer open when it is closed.
+	 *
+	 * @param writer
+	 *            the writer to write to
+	 * @return {@link JsonGenerator}
+	 * @throws IOException
+	 */
+	static JsonGenerator generator(Writer writer) throws IOException
+	{
+		return mapper().getFactory().createGenerator(writer).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	}
+
+	/**
+	 * Populate the given map with the fields of the JSON object the parser is positioned at (or just before), in a single pass
+	 * and without building an intermediate tree. Values are bound the same way the shared mapper binds {@link Object}; while the
+	 * mapper keeps its default deserialization features, scalars are read straight from the parser. A {@link TextMap} only holds
+	 * strings, so it receives the JSON text of every value that is not a JSON string instead.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @param map
+	 *            the map to populate
+	 * @return the given map
+	 * @throws IOException
+	 *             if the content is not a JSON object or cannot be parsed.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static <M extends Map> M readMap(JsonParser parser, M map) throws IOException
+	{
+		JsonToken token = parser.getCurrentToken();
+		if (token != JsonToken.START_OBJECT)
+		{
+			token = parser.nextToken();
+		}
+		if (token != JsonToken.START_OBJECT)
+		{
+			throw notAnObject(parser, token);
+		}
+		final boolean text = readsText(map);
+		while (parser.nextToken() == JsonToken.FIELD_NAME)
+		{
+			final String key = parser.getCurrentName();
+			final JsonToken value = parser.nextToken();
+			map.put(key, text ? readText(parser, value) : readValue(parser, value));
+		}
+		return map;
+	}
+
+	/**
+	 * Create the exception thrown when the content is not a JSON object. The constructor taking the parser only exists from
+	 * Jackson 2.7, so the one taking its location is used despite its deprecation in later versions.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @param token
+	 *            the token found instead of the start of an object
+	 * @return {@link JsonParseException}
+	 */
+	@SuppressWarnings("deprecation")
+	static JsonParseException notAnObject(JsonParser parser, JsonToken token)
+	{
+		return new JsonParseException("Expected a JSON object but found " + token, parser.getCurrentLocation());
+	}
+
+	/**
+	 * Check whether the given map is a {@link TextMap}, and so receives the JSON text of every value from
+	 * {@link #readMap(JsonParser, Map)} and {@link Binary}.
+	 *
+	 * @param map
+	 *            the map to populate
+	 * @return whether values are read as text
+	 */
+	static boolean readsText(Map<?, ?> map)
+	{
+		return map instanceof TextMap;
+	}
+
+	/**
+	 * Bind the value the parser is positioned at, given its current token, the same way {@link #readMap(JsonParser, Map)} binds
+	 * field values.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @param token
+	 *            the current token
+	 * @return the value
+	 * @throws IOException
+	 */
+	static Object readValue(JsonParser parser, JsonToken token) throws IOException
+	{
+		final Cache current = cache;
+		if (!current.defaultFeatures)
+		{
+			// features such as USE_BIG_DECIMAL_FOR_FLOATS change how scalars bind, so the reader binds every value
+			return current.reader(Object.class).readValue(parser);
+		}
+		switch (token)
+		{
+			case VALUE_STRING:
+				return parser.getText();
+			case VALUE_NUMBER_INT:
+			case VALUE_NUMBER_FLOAT:
+				return parser.getNumberValue();
+			case VALUE_TRUE:
+				return Boolean.TRUE;
+			case VALUE_FALSE:
+				return Boolean.FALSE;
+			case VALUE_NULL:
+				return null;
+			default:
+				return current.reader(Object.class).readValue(parser);
+		}
+	}
+
+	/**
+	 * Read the value the parser is positioned at, given its current token, as text: strings as they are, other scalars as their
+	 * JSON literal and nested objects and arrays as compact JSON.
+	 *
+	 * @param parser
+	 *            the parser
+	 * @param token
+	 *            the current token
+	 * @return the text, or {@code null} for a JSON null
+	 * @throws IOException
+	 */
+	static String readText(JsonParser parser, JsonToken token) throws IOException
+	{
+		switch (token)
+		{
+			case START_OBJECT:
+			case START_ARRAY:
+				return mapper().readTree(parser).toString();
+			case VALUE_NULL:
+				return null;
+			default:
+				return parser.getText();
+		}
+	}
+
+	private static JsonParser lenient(JsonParser parser)
+	{
+		return parser.enable(JsonParser.Feature.ALLOW_SINGLE_QUOTES);
+	}
+
+	/**
+	 * Readers and writers built from a single mapper, held per class in {@link ClassValue}s as {@link Beans} holds its
+	 * accessors, so they do not keep the classes they were built for from being unloaded. Swapped as a whole so a reader is never
+	 * paired with another mapper.
+	 */
+	private static final class Cache
+	{
+		private final ObjectMapper mapper;
+		private final boolean defaultFeatures;
+		private final ClassValue<ObjectReader> readers = new ClassValue<ObjectReader>()
+		{
+			@Override
+			@SuppressWarnings("deprecation")
+			protected ObjectReader computeValue(Class<?> type)
+			{
+				return mapper.reader(type);
+			}
+		};
+		private final ClassValue<ObjectWriter> writers = new ClassValue<ObjectWriter>()
+		{
+			@Override
+			@SuppressWarnings("deprecation")
+			protected ObjectWriter computeValue(Class<?> type)
+			{
+				return mapper.writerWithType(type);
+			}
+		};
+
+		Cache(ObjectMapper mapper)
+		{
+			this.mapper = mapper;
+			this.defaultFeatures = mapper.getDeserializationConfig().getDeserializationFeatures() == DEFAULT_FEATURES;
+		}
+
+		ObjectReader reader(Class<?> type)
+		{
+			return readers.get(type);
+		}
+
+		ObjectWriter writer(Class<?> type)
+		{
+			return writers.get(type);
+		}
+	}
+}
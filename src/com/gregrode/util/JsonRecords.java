@@ -0,0 +1,314 @@
+package com.gregrode.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The <code>JsonRecords</code> class is the {@link Spliterator} behind {@link Things#toMaps(Supplier, java.io.Reader)}: it reads
+ * the JSON objects of newline-delimited JSON, or the elements of a top-level JSON array, one at a time from a streaming parser,
+ * so only the records being processed are held in memory.
+ * <p>
+ * Newline-delimited JSON in a file is split by position: {@link #trySplit()} cuts the byte range of the spliterator at the first
+ * line break after its middle, and each half parses its own range of the file, so parallel streams parse in parallel. This relies
+ * on every record being on a single line, as newline-delimited JSON requires.
+ * <p>
+ * Other sources cannot be split without reading them. For those, {@link #trySplit()} reads the next {@value #BATCH} records on
+ * the calling thread and hands them off as an array, halving the estimated size each time so that a parallel stream stops
+ * splitting after a few batches instead of reading the whole input ahead; the rest is then read by a single thread.
+ *
+ * @param <M>
+ *            the type of the maps
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class JsonRecords<M extends Map<?, ?>> implements Spliterator<M>
+{
+
+	private static final int BATCH = 1024;
+	private static final long MIN_SPLIT = 1 << 16;
+
+	private final Supplier<M> mapSupplier;
+	private final FileChannel channel;
+	private long start;
+	private final long end;
+	private JsonParser parser;
+	private long estimate;
+	private boolean started;
+	private boolean array;
+	private boolean done;
+
+	/**
+	 * Create a spliterator reading the records of the given parser, which cannot be split by position.
+	 *
+	 * @param parser
+	 *            the parser over the records; it is closed by {@link #close()}
+	 * @param mapSupplier
+	 *            the supplier of a map per record
+	 */
+	JsonRecords(JsonParser parser, Supplier<M> mapSupplier)
+	{
+		this(mapSupplier, null, 0L, 0L);
+		this.parser = parser;
+		this.estimate = Long.MAX_VALUE;
+	}
+
+	private JsonRecords(Supplier<M> mapSupplier, FileChannel channel, long start, long end)
+	{
+		this.mapSupplier = mapSupplier;
+		this.channel = channel;
+		this.start = start;
+		this.end = end;
+		this.estimate = end - start;
+		this.started = channel != null;
+	}
+
+	/**
+	 * Create a spliterator reading the records of the given file: by position if it holds newline-delimited JSON, through a
+	 * single parser if it holds a JSON array.
+	 *
+	 * @param channel
+	 *            the channel of the file; it is closed by {@link #close()}
+	 * @param mapSupplier
+	 *            the supplier of a map per record
+	 * @return {@link JsonRecords}
+	 * @throws IOException
+	 */
+	static <M extends Map<?, ?>> JsonRecords<M> of(FileChannel channel, Supplier<M> mapSupplier) throws IOException
+	{
+		final ByteBuffer head = ByteBuffer.allocate(256);
+		for (long position = 0L; channel.read(head, position) > 0; position += head.position(), head.clear())
+		{
+			for (int i = 0; i < head.position(); i++)
+			{
+				if (!Character.isWhitespace(head.get(i)))
+				{
+					if (head.get(i) == '[')
+					{
+						return new JsonRecords<>(JsonMappers.parser(Channels.newInputStream(channel)), mapSupplier);
+					}
+					return new JsonRecords<>(mapSupplier, channel, 0L, channel.size());
+				}
+			}
+		}
+		return new JsonRecords<>(mapSupplier, channel, 0L, 0L);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super M> action)
+	{
+		final M map = next();
+		if (map == null)
+		{
+			return false;
+		}
+		action.accept(map);
+		return true;
+	}
+
+	@Override
+	public Spliterator<M> trySplit()
+	{
+		if (channel != null)
+		{
+			return splitRange();
+		}
+		final Object[] batch = new Object[BATCH];
+		int size = 0;
+		for (M map = next(); map != null; map = next())
+		{
+			batch[size++] = map;
+			if (size == BATCH)
+			{
+				break;
+			}
+		}
+		estimate >>>= 1;
+		return (size == 0) ? null : Spliterators.spliterator(batch, 0, size, characteristics());
+	}
+
+	@Override
+	public long estimateSize()
+	{
+		return estimate;
+	}
+
+	@Override
+	public int characteristics()
+	{
+		return Spliterator.ORDERED | Spliterator.NONNULL;
+	}
+
+	/**
+	 * Close the source of the records.
+	 */
+	void close()
+	{
+		done = true;
+		Things.uncheck(() -> {
+			if (channel != null)
+			{
+				channel.close();
+			}
+			if (parser != null)
+			{
+				parser.close();
+			}
+		});
+	}
+
+	/**
+	 * Split off the first half of the byte range of this spliterator, cut at a line break, unless parsing has begun.
+	 */
+	private Spliterator<M> splitRange()
+	{
+		if ((parser != null) || ((end - start) < MIN_SPLIT))
+		{
+			return null;
+		}
+		final long boundary;
+		try
+		{
+			boundary = lineAfter(start + ((end - start) / 2));
+		}
+		catch (final IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		if (boundary >= end)
+		{
+			return null;
+		}
+		final JsonRecords<M> prefix = new JsonRecords<>(mapSupplier, channel, start, boundary);
+		start = boundary;
+		estimate = end - start;
+		return prefix;
+	}
+
+	/**
+	 * @return the position following the first line break at or after the given position, or the end of the range
+	 */
+	private long lineAfter(long position) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(8192);
+		for (long p = position; p < end; buffer.clear())
+		{
+			buffer.limit((int) Math.min(buffer.capacity(), end - p));
+			final int read = channel.read(buffer, p);
+			if (read <= 0)
+			{
+				break;
+			}
+			for (int i = 0; i < read; i++)
+			{
+				if (buffer.get(i) == '\n')
+				{
+					return p + i + 1;
+				}
+			}
+			p += read;
+		}
+		return end;
+	}
+
+	/**
+	 * @return the next record, or {@code null} at the end of the input
+	 */
+	private M next()
+	{
+		if (done)
+		{
+			return null;
+		}
+		try
+		{
+			if (parser == null)
+			{
+				parser = JsonMappers.parser(new Region(channel, start, end));
+			}
+			JsonToken token = parser.nextToken();
+			if (!started)
+			{
+				started = true;
+				if (token == JsonToken.START_ARRAY)
+				{
+					array = true;
+					token = parser.nextToken();
+				}
+			}
+			if ((token == null) || (array && (token == JsonToken.END_ARRAY)))
+			{
+				done = true;
+				if (channel != null)
+				{
+					parser.close();
+				}
+				return null;
+			}
+			if (token != JsonToken.START_OBJECT)
+			{
+				// readMap would skip ahead to the next object, so a record of any other kind would be dropped silently
+				throw JsonMappers.notAnObject(parser, token);
+			}
+			return JsonMappers.readMap(parser, Things.verify(mapSupplier.get(), "Supplier is null"));
+		}
+		catch (final IOException e)
+		{
+			done = true;
+			Metrics.failure(Metrics.Operation.TO_MAP, 0L, e);
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * A range of a file read with positional reads, so that the ranges of a file can be read concurrently. Closing it leaves the
+	 * channel open.
+	 */
+	private static final class Region extends InputStream
+	{
+		private final FileChannel channel;
+		private long position;
+		private final long end;
+
+		Region(FileChannel channel, long position, long end)
+		{
+			this.channel = channel;
+			this.position = position;
+			this.end = end;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			final byte[] b = new byte[1];
+			return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xFF);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			if (position >= end)
+			{
+				return -1;
+			}
+			final int read = channel.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+			if (read > 0)
+			{
+				position += read;
+			}
+			return read;
+		}
+	}
+}
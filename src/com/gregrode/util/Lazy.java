@@ -0,0 +1,145 @@
+package com.gregrode.util;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Supplier;
+
+/**
+ * The <code>Lazy</code> class is a thread-safe {@link Supplier} that memoizes the value of another supplier, created with
+ * {@link Things#lazy(Supplier)} or {@link Things#lazy(Supplier, java.time.Duration)}. The wrapped supplier is called once, by the
+ * first thread to ask for the value; every later read is a single volatile read, without locking.
+ * <p>
+ * When a time to live is given, the value is refreshed once it expires: the first thread to see the expired value calls the
+ * wrapped supplier again while other threads keep reading the previous value, so readers are never blocked by a refresh. Each
+ * expired value is refreshed exactly once. {@link #reset()} discards the value, so that the next read calls the wrapped supplier
+ * again; a refresh in progress does not undo it.
+ *
+ * <pre>
+ * private static final Lazy&lt;Config&gt; DEFAULT_CONFIG = Things.lazy(Config::load);
+ * ...
+ * Config config = Things.nonNull(override, DEFAULT_CONFIG);
+ * </pre>
+ *
+ * @param <T>
+ *            the type of the value
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class Lazy<T> implements Supplier<T>
+{
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<Lazy, Value> VALUE =
+			AtomicReferenceFieldUpdater.newUpdater(Lazy.class, Value.class, "value");
+
+	private final Supplier<? extends T> supplier;
+	private final long ttl;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private volatile Value<T> value;
+
+	/**
+	 * @param supplier
+	 *            the supplier of the value
+	 * @param ttl
+	 *            the time to live of the value in nanoseconds, or {@code 0} if it never expires
+	 */
+	Lazy(Supplier<? extends T> supplier, long ttl)
+	{
+		this.supplier = supplier;
+		this.ttl = ttl;
+	}
+
+	/**
+	 * Get the value, calling the wrapped supplier if the value has not been created yet, has been reset, or has expired.
+	 *
+	 * @return T
+	 */
+	@Override
+	public T get()
+	{
+		final Value<T> current = value;
+		if (current == null)
+		{
+			return initialize();
+		}
+		if ((ttl != 0L) && ((System.nanoTime() - current.expires) >= 0L))
+		{
+			return refresh(current);
+		}
+		return current.value;
+	}
+
+	/**
+	 * @return whether the value has been created and not reset since
+	 */
+	public boolean isInitialized()
+	{
+		return value != null;
+	}
+
+	/**
+	 * Discard the value, so that the next read calls the wrapped supplier again.
+	 */
+	public void reset()
+	{
+		value = null;
+	}
+
+	private synchronized T initialize()
+	{
+		Value<T> current = value;
+		if (current == null)
+		{
+			current = create();
+			value = current;
+		}
+		return current.value;
+	}
+
+	private T refresh(Value<T> stale)
+	{
+		if (!refreshing.compareAndSet(false, true))
+		{
+			return stale.value;
+		}
+		try
+		{
+			// another thread may have refreshed or reset the value since it was read
+			final Value<T> current = value;
+			if (current != stale)
+			{
+				return (current == null) ? initialize() : current.value;
+			}
+			final Value<T> fresh = create();
+			// a reset during the refresh wins
+			VALUE.compareAndSet(this, stale, fresh);
+			return fresh.value;
+		}
+		finally
+		{
+			refreshing.set(false);
+		}
+	}
+
+	private Value<T> create()
+	{
+		final T t = supplier.get();
+		return new Value<>(t, System.nanoTime() + ttl);
+	}
+
+	/**
+	 * A value along with the {@link System#nanoTime()} at which it expires; {@code null} values are memoized too.
+	 */
+	private static final class Value<T>
+	{
+		private final T value;
+		private final long expires;
+
+		Value(T value, long expires)
+		{
+			this.value = value;
+			this.expires = expires;
+		}
+	}
+}
@@ -0,0 +1,308 @@
+package com.gregrode.util;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * The <code>LazyJsonMap</code> class is a {@link Map} view over a JSON object that only decodes the values that are read. The
+ * document is scanned once to build a compact index of each key and the character range of its value; {@link #get(Object)}
+ * decodes a single value from that offset and caches it.
+ * <p>
+ * {@link #size()}, {@link #containsKey(Object)} and {@link #get(Object)} work from the index. Any mutation, and any use of the
+ * bulk views ({@link #entrySet()}, {@link #keySet()}, {@link #values()}, equality), first materializes every value into a
+ * {@link LinkedHashMap} in document order and forwards to it from then on. Like {@link java.util.HashMap}, the map is not
+ * thread-safe.
+ *
+ * @param <V>
+ *            The type of object for the map value
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class LazyJsonMap<V> extends AbstractMap<String, V>
+{
+
+	private static final Object UNDECODED = new Object();
+
+	private String json;
+	private String[] keys;
+	private int[] offsets;
+	private int[] ends;
+	private Object[] values;
+	private int[] slots;
+	private int size;
+	private Map<String, V> delegate;
+
+	/**
+	 * Scan the given JSON object and index its keys.
+	 *
+	 * @param json
+	 *            the JSON String
+	 * @throws IOException
+	 *             if the content is not a JSON object or cannot be parsed.
+	 */
+	public LazyJsonMap(String json) throws IOException
+	{
+		this.json = Things.verify(json, "Cannot index null string.");
+		this.keys = new String[8];
+		this.offsets = new int[8];
+		this.ends = new int[8];
+		this.slots = new int[16];
+		try (JsonParser parser = JsonMappers.parser(json))
+		{
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+			{
+				throw new IOException("Expected a JSON object but found " + parser.getCurrentToken());
+			}
+			JsonToken next = parser.nextToken();
+			while (next == JsonToken.FIELD_NAME)
+			{
+				final String key = parser.getCurrentName();
+				// the token location of a value is not reliable across Jackson versions, so walk past the name from its own
+				final int offset = valueStart((int) parser.getTokenLocation().getCharOffset());
+				final JsonToken token = parser.nextToken();
+				// numbers are already consumed at this point and must be bounded, a lone number is only valid at the end of input
+				final int numberEnd = token.isNumeric() ? (int) parser.getCurrentLocation().getCharOffset() : -1;
+				parser.skipChildren();
+				final int i = index(key, offset);
+				next = parser.nextToken();
+				// any other value ends before the next name, or the end of the object, so decoding it copies only its range
+				ends[i] = token.isNumeric() ? numberEnd : (int) parser.getTokenLocation().getCharOffset();
+			}
+			if (parser.getCurrentToken() != JsonToken.END_OBJECT)
+			{
+				throw new IOException("Unterminated JSON object");
+			}
+		}
+		this.values = new Object[size];
+		Arrays.fill(values, UNDECODED);
+	}
+
+	@Override
+	public int size()
+	{
+		return (delegate != null) ? delegate.size() : size;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		return (delegate != null) ? delegate.containsKey(key) : (find(key) >= 0);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(Object key)
+	{
+		if (delegate != null)
+		{
+			return delegate.get(key);
+		}
+		final int i = find(key);
+		return (i < 0) ? null : (V) decode(i);
+	}
+
+	@Override
+	public V put(String key, V value)
+	{
+		return materialize().put(key, value);
+	}
+
+	@Override
+	public V remove(Object key)
+	{
+		return materialize().remove(key);
+	}
+
+	@Override
+	public void putAll(Map<? extends String, ? extends V> map)
+	{
+		materialize().putAll(map);
+	}
+
+	@Override
+	public void clear()
+	{
+		materialize().clear();
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet()
+	{
+		return materialize().entrySet();
+	}
+
+	/**
+	 * Check whether every value has been decoded into a regular map, after which the index is no longer used.
+	 *
+	 * @return boolean
+	 */
+	public boolean isMaterialized()
+	{
+		return delegate != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<String, V> materialize()
+	{
+		if (delegate == null)
+		{
+			final Map<String, V> map = new LinkedHashMap<>((size * 4 / 3) + 1);
+			for (int i = 0; i < size; i++)
+			{
+				map.put(keys[i], (V) decode(i));
+			}
+			delegate = map;
+			json = null;
+			keys = null;
+			offsets = null;
+			ends = null;
+			values = null;
+			slots = null;
+		}
+		return delegate;
+	}
+
+	private Object decode(int i)
+	{
+		Object value = values[i];
+		if (value == UNDECODED)
+		{
+			try (JsonParser parser = JsonMappers.parser(json.substring(offsets[i], ends[i])))
+			{
+				value = JsonMappers.readValue(parser, parser.nextToken());
+			}
+			catch (final IOException e)
+			{
+				throw new IllegalStateException("Unable to decode the value of " + keys[i], e);
+			}
+			values[i] = value;
+		}
+		return value;
+	}
+
+	private int find(Object key)
+	{
+		if (key == null)
+		{
+			return -1;
+		}
+		final int mask = slots.length - 1;
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask)
+		{
+			final int i = slots[slot] - 1;
+			if ((i < 0) || keys[i].equals(key))
+			{
+				return i;
+			}
+		}
+	}
+
+	/**
+	 * Index the value of the given key at the given offset. Its end is set by the caller once known.
+	 *
+	 * @return the index of the key
+	 */
+	private int index(String key, int offset)
+	{
+		final int existing = find(key);
+		if (existing >= 0)
+		{
+			// a repeated key keeps the last value, as it would in a HashMap
+			offsets[existing] = offset;
+			return existing;
+		}
+		if (size == keys.length)
+		{
+			keys = Arrays.copyOf(keys, size * 2);
+			offsets = Arrays.copyOf(offsets, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+		}
+		keys[size] = key;
+		offsets[size] = offset;
+		size++;
+		if ((size * 2) > slots.length)
+		{
+			slots = new int[slots.length * 2];
+			for (int i = 0; i < size; i++)
+			{
+				insert(i);
+			}
+		}
+		else
+		{
+			insert(size - 1);
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Find where the value of a field begins, starting from the location of its name token. Depending on the Jackson version that
+	 * location is the name itself or the comma in front of it.
+	 *
+	 * @return the offset of the first character of the value
+	 */
+	private int valueStart(int nameAt)
+	{
+		int i = skipWhitespace(nameAt);
+		if (json.charAt(i) == ',')
+		{
+			i = skipWhitespace(i + 1);
+		}
+		final char quote = json.charAt(i);
+		if ((quote == '"') || (quote == '\''))
+		{
+			for (i++; json.charAt(i) != quote; i++)
+			{
+				if (json.charAt(i) == '\\')
+				{
+					i++;
+				}
+			}
+			i++;
+		}
+		else
+		{
+			// an unquoted name, when the parser allows it
+			while ((json.charAt(i) != ':') && !Character.isWhitespace(json.charAt(i)))
+			{
+				i++;
+			}
+		}
+		i = skipWhitespace(i);
+		return skipWhitespace(i + 1);
+	}
+
+	private int skipWhitespace(int i)
+	{
+		while (Character.isWhitespace(json.charAt(i)))
+		{
+			i++;
+		}
+		return i;
+	}
+
+	private void insert(int i)
+	{
+		final int mask = slots.length - 1;
+		int slot = hash(keys[i]) & mask;
+		while (slots[slot] != 0)
+		{
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = i + 1;
+	}
+
+	private static int hash(Object key)
+	{
+		final int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+}
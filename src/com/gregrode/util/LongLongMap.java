@@ -0,0 +1,444 @@
+package com.gregrode.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The <code>LongLongMap</code> class is an open-addressing hash map from {@code long} keys to {@code long} values. Keys and
+ * values are stored in flat parallel arrays probed linearly, so no key is boxed and no node is allocated per entry. Removal uses
+ * backward shifting, which keeps lookups free of tombstones.
+ * <p>
+ * {@link #asMap()} exposes the map through the {@link Map} interface for interoperability; its views do not support removal
+ * through iterators. The map is not thread-safe.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class LongLongMap
+{
+
+	private static final int MIN_CAPACITY = 8;
+
+	private long[] keys;
+	private long[] values;
+	private int mask;
+	private int size;
+	private boolean hasZeroKey;
+	private long zeroValue;
+
+	/**
+	 * Create an empty map.
+	 */
+	public LongLongMap()
+	{
+		this(0);
+	}
+
+	/**
+	 * Create an empty map sized to hold the given number of entries without resizing.
+	 *
+	 * @param expectedSize
+	 *            the expected number of entries
+	 */
+	public LongLongMap(int expectedSize)
+	{
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * @return the number of entries in the map
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if the map has no entries
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Check whether the map holds the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return boolean
+	 */
+	public boolean containsKey(long key)
+	{
+		return (key == 0) ? hasZeroKey : (slot(key) >= 0);
+	}
+
+	/**
+	 * Get the value mapped to the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value, or {@code 0} if the key is not present
+	 */
+	public long get(long key)
+	{
+		return getOrDefault(key, 0);
+	}
+
+	/**
+	 * Get the value mapped to the given key, or the given default if the key is not present.
+	 *
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value returned when the key is not present
+	 * @return the value
+	 */
+	public long getOrDefault(long key, long defaultValue)
+	{
+		if (key == 0)
+		{
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		final int slot = slot(key);
+		return (slot < 0) ? defaultValue : values[slot];
+	}
+
+	/**
+	 * Map the given key to the given value, replacing any previous value.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value, or {@code 0} if the key was not present
+	 */
+	public long put(long key, long value)
+	{
+		return put(key, value, true);
+	}
+
+	/**
+	 * Map the given key to the given value only if the key is not present yet.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the current value, or {@code 0} if the key was not present and the value was stored
+	 */
+	public long putIfAbsent(long key, long value)
+	{
+		return put(key, value, false);
+	}
+
+	/**
+	 * Remove the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the removed value, or {@code 0} if the key was not present
+	 */
+	public long remove(long key)
+	{
+		if (key == 0)
+		{
+			if (!hasZeroKey)
+			{
+				return 0;
+			}
+			final long previous = zeroValue;
+			hasZeroKey = false;
+			zeroValue = 0;
+			size--;
+			return previous;
+		}
+		final int slot = slot(key);
+		if (slot < 0)
+		{
+			return 0;
+		}
+		final long previous = values[slot];
+		shift(slot);
+		size--;
+		return previous;
+	}
+
+	/**
+	 * Remove every entry, keeping the current capacity.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, 0L);
+		hasZeroKey = false;
+		zeroValue = 0;
+		size = 0;
+	}
+
+	/**
+	 * Perform the given action for each entry of the map.
+	 *
+	 * @param action
+	 *            the action
+	 */
+	public void forEach(EntryConsumer action)
+	{
+		Things.verify(action, "Action not specified.");
+		if (hasZeroKey)
+		{
+			action.accept(0, zeroValue);
+		}
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (keys[i] != 0)
+			{
+				action.accept(keys[i], values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Get a {@link Map} view backed by this map. Keys and values are boxed as they cross the view.
+	 *
+	 * @return {@link Map}
+	 */
+	public Map<Long, Long> asMap()
+	{
+		return new MapView();
+	}
+
+	private long put(long key, long value, boolean replace)
+	{
+		if (key == 0)
+		{
+			final long previous = hasZeroKey ? zeroValue : 0;
+			if (!hasZeroKey)
+			{
+				hasZeroKey = true;
+				zeroValue = value;
+				size++;
+			}
+			else if (replace)
+			{
+				zeroValue = value;
+			}
+			return previous;
+		}
+		int slot = hash(key) & mask;
+		while (keys[slot] != 0)
+		{
+			if (keys[slot] == key)
+			{
+				final long previous = values[slot];
+				if (replace)
+				{
+					values[slot] = value;
+				}
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > (keys.length >> 1))
+		{
+			rehash(keys.length << 1);
+		}
+		return 0;
+	}
+
+	private int slot(long key)
+	{
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				return slot;
+			}
+			if (keys[slot] == 0)
+			{
+				return -1;
+			}
+		}
+	}
+
+	private void shift(int gap)
+	{
+		for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask)
+		{
+			final int ideal = hash(keys[next]) & mask;
+			if (((next - ideal) & mask) >= ((next - gap) & mask))
+			{
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		keys[gap] = 0;
+		values[gap] = 0;
+	}
+
+	private void rehash(int capacity)
+	{
+		final long[] oldKeys = keys;
+		final long[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			final long key = oldKeys[i];
+			if (key != 0)
+			{
+				int slot = hash(key) & mask;
+				while (keys[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new long[capacity];
+		values = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int capacityFor(int expectedSize)
+	{
+		final long needed = Math.max(MIN_CAPACITY, 2L * expectedSize + 1);
+		if (needed > (1 << 30))
+		{
+			throw new IllegalArgumentException("Too many entries: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	private static int hash(long key)
+	{
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Callback for {@link LongLongMap#forEach(EntryConsumer)}.
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer
+	{
+		/**
+		 * @param key
+		 *            the key of the entry
+		 * @param value
+		 *            the value of the entry
+		 */
+		void accept(long key, long value);
+	}
+
+	private final class MapView extends AbstractMap<Long, Long>
+	{
+		@Override
+		public int size()
+		{
+			return size;
+		}
+
+		@Override
+		public boolean containsKey(Object key)
+		{
+			return (key instanceof Long) && LongLongMap.this.containsKey((Long) key);
+		}
+
+		@Override
+		public Long get(Object key)
+		{
+			return containsKey(key) ? LongLongMap.this.get((Long) key) : null;
+		}
+
+		@Override
+		public Long put(Long key, Long value)
+		{
+			final boolean present = LongLongMap.this.containsKey(key);
+			final long previous = LongLongMap.this.put(key, value);
+			return present ? previous : null;
+		}
+
+		@Override
+		public Long remove(Object key)
+		{
+			return containsKey(key) ? LongLongMap.this.remove((Long) key) : null;
+		}
+
+		@Override
+		public void clear()
+		{
+			LongLongMap.this.clear();
+		}
+
+		@Override
+		public Set<Entry<Long, Long>> entrySet()
+		{
+			return new AbstractSet<Entry<Long, Long>>()
+			{
+				@Override
+				public int size()
+				{
+					return size;
+				}
+
+				@Override
+				public Iterator<Entry<Long, Long>> iterator()
+				{
+					return new EntryIterator();
+				}
+			};
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<Long, Long>>
+	{
+		private boolean zeroPending = hasZeroKey;
+		private int next = advance(0);
+
+		@Override
+		public boolean hasNext()
+		{
+			return zeroPending || (next < keys.length);
+		}
+
+		@Override
+		public Entry<Long, Long> next()
+		{
+			if (zeroPending)
+			{
+				zeroPending = false;
+				return new AbstractMap.SimpleImmutableEntry<>(0L, zeroValue);
+			}
+			if (next >= keys.length)
+			{
+				throw new NoSuchElementException();
+			}
+			final Entry<Long, Long> entry = new AbstractMap.SimpleImmutableEntry<>(keys[next], values[next]);
+			next = advance(next + 1);
+			return entry;
+		}
+
+		private int advance(int from)
+		{
+			int i = from;
+			while ((i < keys.length) && (keys[i] == 0))
+			{
+				i++;
+			}
+			return i;
+		}
+	}
+}
@@ -0,0 +1,456 @@
+package com.gregrode.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The <code>LongObjectMap</code> class is an open-addressing hash map from {@code long} keys to object values. Keys and values
+ * are stored in flat parallel arrays probed linearly, so no key is boxed and no node is allocated per entry. Removal uses
+ * backward shifting, which keeps lookups free of tombstones.
+ * <p>
+ * {@link #asMap()} exposes the map through the {@link Map} interface for interoperability; its views do not support removal
+ * through iterators. The map is not thread-safe.
+ *
+ * @param <V>
+ *            The type of object for the map value
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class LongObjectMap<V>
+{
+
+	private static final int MIN_CAPACITY = 8;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	private int size;
+	private boolean hasZeroKey;
+	private V zeroValue;
+
+	/**
+	 * Create an empty map.
+	 */
+	public LongObjectMap()
+	{
+		this(0);
+	}
+
+	/**
+	 * Create an empty map sized to hold the given number of entries without resizing.
+	 *
+	 * @param expectedSize
+	 *            the expected number of entries
+	 */
+	public LongObjectMap(int expectedSize)
+	{
+		allocate(capacityFor(expectedSize));
+	}
+
+	/**
+	 * @return the number of entries in the map
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return {@code true} if the map has no entries
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Check whether the map holds the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return boolean
+	 */
+	public boolean containsKey(long key)
+	{
+		return (key == 0) ? hasZeroKey : (slot(key) >= 0);
+	}
+
+	/**
+	 * Get the value mapped to the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value, or {@code null} if the key is not present
+	 */
+	public V get(long key)
+	{
+		return getOrDefault(key, null);
+	}
+
+	/**
+	 * Get the value mapped to the given key, or the given default if the key is not present.
+	 *
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value returned when the key is not present
+	 * @return the value
+	 */
+	@SuppressWarnings("unchecked")
+	public V getOrDefault(long key, V defaultValue)
+	{
+		if (key == 0)
+		{
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		final int slot = slot(key);
+		return (slot < 0) ? defaultValue : (V) values[slot];
+	}
+
+	/**
+	 * Map the given key to the given value, replacing any previous value.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value, or {@code null} if the key was not present
+	 */
+	public V put(long key, V value)
+	{
+		return put(key, value, true);
+	}
+
+	/**
+	 * Map the given key to the given value only if the key is not present yet.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the current value, or {@code null} if the key was not present and the value was stored
+	 */
+	public V putIfAbsent(long key, V value)
+	{
+		return put(key, value, false);
+	}
+
+	/**
+	 * Remove the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the removed value, or {@code null} if the key was not present
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key)
+	{
+		if (key == 0)
+		{
+			if (!hasZeroKey)
+			{
+				return null;
+			}
+			final V previous = zeroValue;
+			hasZeroKey = false;
+			zeroValue = null;
+			size--;
+			return previous;
+		}
+		final int slot = slot(key);
+		if (slot < 0)
+		{
+			return null;
+		}
+		final V previous = (V) values[slot];
+		shift(slot);
+		size--;
+		return previous;
+	}
+
+	/**
+	 * Remove every entry, keeping the current capacity.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, 0L);
+		Arrays.fill(values, null);
+		hasZeroKey = false;
+		zeroValue = null;
+		size = 0;
+	}
+
+	/**
+	 * Perform the given action for each entry of the map.
+	 *
+	 * @param action
+	 *            the action
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(EntryConsumer<? super V> action)
+	{
+		Things.verify(action, "Action not specified.");
+		if (hasZeroKey)
+		{
+			action.accept(0, zeroValue);
+		}
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (keys[i] != 0)
+			{
+				action.accept(keys[i], (V) values[i]);
+			}
+		}
+	}
+
+	/**
+	 * Get a {@link Map} view backed by this map. Keys and values are boxed as they cross the view.
+	 *
+	 * @return {@link Map}
+	 */
+	public Map<Long, V> asMap()
+	{
+		return new MapView();
+	}
+
+	@SuppressWarnings("unchecked")
+	private V put(long key, V value, boolean replace)
+	{
+		if (key == 0)
+		{
+			final V previous = hasZeroKey ? zeroValue : null;
+			if (!hasZeroKey)
+			{
+				hasZeroKey = true;
+				zeroValue = value;
+				size++;
+			}
+			else if (replace)
+			{
+				zeroValue = value;
+			}
+			return previous;
+		}
+		int slot = hash(key) & mask;
+		while (keys[slot] != 0)
+		{
+			if (keys[slot] == key)
+			{
+				final V previous = (V) values[slot];
+				if (replace)
+				{
+					values[slot] = value;
+				}
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > (keys.length >> 1))
+		{
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+
+	private int slot(long key)
+	{
+		for (int slot = hash(key) & mask;; slot = (slot + 1) & mask)
+		{
+			if (keys[slot] == key)
+			{
+				return slot;
+			}
+			if (keys[slot] == 0)
+			{
+				return -1;
+			}
+		}
+	}
+
+	private void shift(int gap)
+	{
+		for (int next = (gap + 1) & mask; keys[next] != 0; next = (next + 1) & mask)
+		{
+			final int ideal = hash(keys[next]) & mask;
+			if (((next - ideal) & mask) >= ((next - gap) & mask))
+			{
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+		}
+		keys[gap] = 0;
+		values[gap] = null;
+	}
+
+	private void rehash(int capacity)
+	{
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			final long key = oldKeys[i];
+			if (key != 0)
+			{
+				int slot = hash(key) & mask;
+				while (keys[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity)
+	{
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+	}
+
+	private static int capacityFor(int expectedSize)
+	{
+		final long needed = Math.max(MIN_CAPACITY, 2L * expectedSize + 1);
+		if (needed > (1 << 30))
+		{
+			throw new IllegalArgumentException("Too many entries: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	private static int hash(long key)
+	{
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Callback for {@link LongObjectMap#forEach(EntryConsumer)}.
+	 *
+	 * @param <V>
+	 *            The type of object for the map value
+	 */
+	@FunctionalInterface
+	public interface EntryConsumer<V>
+	{
+		/**
+		 * @param key
+		 *            the key of the entry
+		 * @param value
+		 *            the value of the entry
+		 */
+		void accept(long key, V value);
+	}
+
+	private final class MapView extends AbstractMap<Long, V>
+	{
+		@Override
+		public int size()
+		{
+			return size;
+		}
+
+		@Override
+		public boolean containsKey(Object key)
+		{
+			return (key instanceof Long) && LongObjectMap.this.containsKey((Long) key);
+		}
+
+		@Override
+		public V get(Object key)
+		{
+			return containsKey(key) ? LongObjectMap.this.get((Long) key) : null;
+		}
+
+		@Override
+		public V put(Long key, V value)
+		{
+			final boolean present = LongObjectMap.this.containsKey(key);
+			final V previous = LongObjectMap.this.put(key, value);
+			return present ? previous : null;
+		}
+
+		@Override
+		public V remove(Object key)
+		{
+			return containsKey(key) ? LongObjectMap.this.remove((Long) key) : null;
+		}
+
+		@Override
+		public void clear()
+		{
+			LongObjectMap.this.clear();
+		}
+
+		@Override
+		public Set<Entry<Long, V>> entrySet()
+		{
+			return new AbstractSet<Entry<Long, V>>()
+			{
+				@Override
+				public int size()
+				{
+					return size;
+				}
+
+				@Override
+				public Iterator<Entry<Long, V>> iterator()
+				{
+					return new EntryIterator();
+				}
+			};
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<Long, V>>
+	{
+		private boolean zeroPending = hasZeroKey;
+		private int next = advance(0);
+
+		@Override
+		public boolean hasNext()
+		{
+			return zeroPending || (next < keys.length);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public Entry<Long, V> next()
+		{
+			if (zeroPending)
+			{
+				zeroPending = false;
+				return new AbstractMap.SimpleImmutableEntry<>(0L, zeroValue);
+			}
+			if (next >= keys.length)
+			{
+				throw new NoSuchElementException();
+			}
+			final Entry<Long, V> entry = new AbstractMap.SimpleImmutableEntry<>(keys[next], (V) values[next]);
+			next = advance(next + 1);
+			return entry;
+		}
+
+		private int advance(int from)
+		{
+			int i = from;
+			while ((i < keys.length) && (keys[i] == 0))
+			{
+				i++;
+			}
+			return i;
+		}
+	}
+}
@@ -0,0 +1,433 @@
+package com.gregrode.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * The <code>Memoizer</code> class is a concurrent, bounded cache in front of a pure but expensive {@link Function}, created with
+ * {@link Things#memoize(Function, Options)}. It is itself a {@link Function}, so it can be handed to {@link Things#toMap} or
+ * {@link Things#pluck} in place of the function it wraps.
+ * <p>
+ * The cache is bounded by entry count or by total weight. When it is over its bound, entries are evicted with the GCLOCK policy:
+ * each entry carries a small hit counter, a clock hand sweeps the entries in insertion order, decrementing the counter of those
+ * that were hit and evicting the first one that was not, so frequently used entries survive a sweep of one-off inputs. Reads
+ * never lock; only inserts and evictions take the lock of the clock.
+ * <p>
+ * Concurrent misses of the same input call the wrapped function once: the first thread computes the result while the others wait
+ * for it. Failures are not cached; what the function throws is rethrown to every waiting thread.
+ *
+ * <pre>
+ * Memoizer&lt;String, Address&gt; parse = Things.memoize(Address::parse, Memoizer.&lt;String, Address&gt; options()
+ * 		.maximumSize(10_000)
+ * 		.expireAfterWrite(Duration.ofMinutes(5)));
+ * Collection&lt;Address&gt; addresses = Things.pluck(lines, parse);
+ * </pre>
+ *
+ * @param <K>
+ *            the type of the function input
+ * @param <V>
+ *            the type of the function result
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class Memoizer<K, V> implements Function<K, V>
+{
+
+	private static final Object NULL_KEY = new Object();
+	private static final int MAX_FREQUENCY = 3;
+
+	private final Function<? super K, ? extends V> function;
+	private final long maximumWeight;
+	private final ToIntBiFunction<? super K, ? super V> weigher;
+	private final long expireAfterWrite;
+
+	private final ConcurrentMap<Object, Node<V>> nodes = new ConcurrentHashMap<>();
+	private final ArrayDeque<Node<V>> clock = new ArrayDeque<>();
+	private final AtomicLong weight = new AtomicLong();
+	/**
+	 * The number of removed nodes still in the clock, guarded by the lock of the clock.
+	 */
+	private int dead;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	Memoizer(Function<? super K, ? extends V> function, Options<K, V> options)
+	{
+		this.function = function;
+		this.maximumWeight = options.maximumWeight;
+		this.weigher = options.weigher;
+		this.expireAfterWrite = options.expireAfterWrite;
+	}
+
+	/**
+	 * Create the options of a new {@link Memoizer}. By default the cache is unbounded and entries never expire.
+	 *
+	 * @param <K>
+	 *            the type of the function input
+	 * @param <V>
+	 *            the type of the function result
+	 * @return {@link Options}
+	 */
+	public static <K, V> Options<K, V> options()
+	{
+		return new Options<>();
+	}
+
+	/**
+	 * Get the result of the wrapped function for the given input, computing it only if it is not cached.
+	 *
+	 * @param key
+	 *            the function input
+	 * @return the function result
+	 */
+	@Override
+	public V apply(K key)
+	{
+		final Object k = (key == null) ? NULL_KEY : key;
+		while (true)
+		{
+			final Node<V> node = nodes.get(k);
+			if (node == null)
+			{
+				final Node<V> created = new Node<>(k);
+				if (nodes.putIfAbsent(k, created) == null)
+				{
+					misses.increment();
+					return load(key, created);
+				}
+			}
+			else if (isExpired(node))
+			{
+				remove(node, true);
+			}
+			else
+			{
+				hits.increment();
+				final int frequency = node.frequency;
+				if (frequency < MAX_FREQUENCY)
+				{
+					node.frequency = frequency + 1;
+				}
+				return node.join();
+			}
+		}
+	}
+
+	/**
+	 * Discard the cached result for the given input, if any.
+	 *
+	 * @param key
+	 *            the function input
+	 */
+	public void invalidate(K key)
+	{
+		final Node<V> node = nodes.get((key == null) ? NULL_KEY : key);
+		if (node != null)
+		{
+			remove(node, true);
+		}
+	}
+
+	/**
+	 * Discard every cached result.
+	 */
+	public void invalidateAll()
+	{
+		nodes.values().forEach(node -> remove(node, true));
+	}
+
+	/**
+	 * @return the number of cached results, including those being computed
+	 */
+	public int size()
+	{
+		return nodes.size();
+	}
+
+	/**
+	 * @return the total weight of the cached results; their number when no weigher was given
+	 */
+	public long weight()
+	{
+		return weight.get();
+	}
+
+	/**
+	 * @return a snapshot of the statistics of this cache
+	 */
+	public Stats stats()
+	{
+		return new Stats(hits.sum(), misses.sum(), evictions.sum());
+	}
+
+	private V load(K key, Node<V> node)
+	{
+		final V value;
+		try
+		{
+			value = function.apply(key);
+			node.weight = (weigher == null) ? 1 : Things.verify(weigher.applyAsInt(key, value),
+					() -> new IllegalStateException("Weights must not be negative."), w -> w >= 0);
+		}
+		catch (final RuntimeException | Error e)
+		{
+			nodes.remove(node.key, node);
+			node.future.completeExceptionally(e);
+			throw e;
+		}
+		node.expires = System.nanoTime() + expireAfterWrite;
+		node.future.complete(value);
+		synchronized (clock)
+		{
+			if (nodes.get(node.key) == node)
+			{
+				clock.addLast(node);
+				weight.addAndGet(node.weight);
+				node.live = true;
+			}
+			evict();
+		}
+		return value;
+	}
+
+	/**
+	 * Sweep the clock until the cache is back within its bound. Called with the lock of the clock held.
+	 */
+	private void evict()
+	{
+		while (weight.get() > maximumWeight)
+		{
+			final Node<V> node = clock.pollFirst();
+			if (node == null)
+			{
+				return;
+			}
+			if (nodes.get(node.key) != node)
+			{
+				if (!node.live)
+				{
+					dead--;
+				}
+				continue;
+			}
+			if ((node.frequency > 0) && !isExpired(node))
+			{
+				node.frequency--;
+				clock.addLast(node);
+			}
+			else if (remove(node, false))
+			{
+				evictions.increment();
+			}
+		}
+	}
+
+	private boolean isExpired(Node<V> node)
+	{
+		return (expireAfterWrite != 0L) && node.future.isDone() && ((System.nanoTime() - node.expires) >= 0L);
+	}
+
+	/**
+	 * Remove the given node from the cache, unless it has already been replaced. A node still in the clock stays there until the
+	 * clock is swept, which happens once removed nodes make up half of it, so invalidated and expired results are not retained
+	 * when the cache never grows past its bound.
+	 *
+	 * @param node
+	 *            the node to remove
+	 * @param inClock
+	 *            whether the node is still in the clock, rather than just polled from it by an eviction
+	 */
+	private boolean remove(Node<V> node, boolean inClock)
+	{
+		if (!nodes.remove(node.key, node))
+		{
+			return false;
+		}
+		synchronized (clock)
+		{
+			if (node.live)
+			{
+				node.live = false;
+				weight.addAndGet(-node.weight);
+				if (inClock && (++dead > (clock.size() >>> 1)))
+				{
+					clock.removeIf(n -> !n.live);
+					dead = 0;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A cached result, or the future of one being computed.
+	 */
+	private static final class Node<V>
+	{
+		private final Object key;
+		private final CompletableFuture<V> future = new CompletableFuture<>();
+		private volatile int frequency;
+		private volatile long expires;
+		private int weight;
+		private boolean live;
+
+		Node(Object key)
+		{
+			this.key = key;
+		}
+
+		V join()
+		{
+			try
+			{
+				return future.join();
+			}
+			catch (final CompletionException e)
+			{
+				final Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+				{
+					throw (RuntimeException) cause;
+				}
+				if (cause instanceof Error)
+				{
+					throw (Error) cause;
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * The bounds of a {@link Memoizer}.
+	 *
+	 * @param <K>
+	 *            the type of the function input
+	 * @param <V>
+	 *            the type of the function result
+	 */
+	public static final class Options<K, V>
+	{
+		private long maximumWeight = Long.MAX_VALUE;
+		private ToIntBiFunction<? super K, ? super V> weigher;
+		private long expireAfterWrite;
+
+		Options()
+		{
+		}
+
+		/**
+		 * Bound the cache to the given number of results.
+		 *
+		 * @param maximumSize
+		 *            the maximum number of results
+		 * @return these options
+		 */
+		public Options<K, V> maximumSize(long maximumSize)
+		{
+			this.maximumWeight =
+					Things.verify(maximumSize, () -> new IllegalArgumentException("Size must be positive."), s -> s > 0);
+			this.weigher = null;
+			return this;
+		}
+
+		/**
+		 * Bound the cache to the given total weight, the weight of each result being given by the weigher once it is computed.
+		 *
+		 * @param maximumWeight
+		 *            the maximum total weight
+		 * @param weigher
+		 *            the weight of an input and its result; must not be negative
+		 * @return these options
+		 */
+		public Options<K, V> maximumWeight(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher)
+		{
+			this.maximumWeight =
+					Things.verify(maximumWeight, () -> new IllegalArgumentException("Weight must be positive."), w -> w > 0);
+			this.weigher = Things.verify(weigher, () -> new IllegalArgumentException("Weigher not specified."));
+			return this;
+		}
+
+		/**
+		 * Expire each result once the given time has passed since it was computed.
+		 *
+		 * @param ttl
+		 *            the time to live of a result
+		 * @return these options
+		 */
+		public Options<K, V> expireAfterWrite(Duration ttl)
+		{
+			Things.verify(ttl, () -> new IllegalArgumentException("Time to live must be positive."),
+					d -> !d.isNegative() && !d.isZero());
+			this.expireAfterWrite = ttl.toNanos();
+			return this;
+		}
+	}
+
+	/**
+	 * A snapshot of the statistics of a {@link Memoizer}.
+	 */
+	public static final class Stats
+	{
+		private final long hits;
+		private final long misses;
+		private final long evictions;
+
+		Stats(long hits, long misses, long evictions)
+		{
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+		}
+
+		/**
+		 * @return the number of calls answered from the cache, including those that waited for a result being computed
+		 */
+		public long getHits()
+		{
+			return hits;
+		}
+
+		/**
+		 * @return the number of calls that computed their result
+		 */
+		public long getMisses()
+		{
+			return misses;
+		}
+
+		/**
+		 * @return the number of results evicted to keep the cache within its bound
+		 */
+		public long getEvictions()
+		{
+			return evictions;
+		}
+
+		/**
+		 * @return the ratio of hits to calls, or {@code 1} if there were no calls
+		 */
+		public double getHitRate()
+		{
+			final long calls = hits + misses;
+			return (calls == 0) ? 1.0 : (double) hits / calls;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "hits=" + hits + ", misses=" + misses + ", evictions=" + evictions;
+		}
+	}
+}
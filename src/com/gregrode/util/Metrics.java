@@ -0,0 +1,362 @@
+package com.gregrode.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The <code>Metrics</code> class is the opt-in instrumentation hook of {@link Things}. Once a {@link Recorder} is installed, the
+ * JSON conversions report their latency, the size of their input or output and their failures, including the failures that
+ * {@link Things#toJSON(Object)} and {@link Things#toMap(String)} otherwise swallow, and every failed {@code verify} is reported.
+ * <p>
+ * Nothing is recorded by default. While no recorder is installed, each instrumented call costs a single volatile read: the clock
+ * is not read and nothing is allocated.
+ *
+ * <pre>
+ * Metrics.Registry registry = new Metrics.Registry();
+ * Metrics.install(registry);
+ * ...
+ * long swallowed = registry.stats(Metrics.Operation.TO_MAP).getFailures();
+ * </pre>
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class Metrics
+{
+
+	private static volatile Recorder recorder;
+
+	private Metrics()
+	{
+	}
+
+	/**
+	 * Install the given recorder, replacing the one currently installed.
+	 *
+	 * @param recorder
+	 *            the recorder to report to
+	 */
+	public static void install(Recorder recorder)
+	{
+		Metrics.recorder = Things.verify(recorder, "Recorder not specified.");
+	}
+
+	/**
+	 * Remove the installed recorder, if any, and stop recording.
+	 */
+	public static void uninstall()
+	{
+		recorder = null;
+	}
+
+	/**
+	 * @return the installed recorder, or {@code null} if nothing is being recorded
+	 */
+	public static Recorder recorder()
+	{
+		return recorder;
+	}
+
+	/**
+	 * Start timing an operation.
+	 *
+	 * @return the start time to hand back to {@link #success(Operation, long, long)} or
+	 *         {@link #failure(Operation, long, Throwable)}, or {@code 0} if nothing is being recorded
+	 */
+	static long start()
+	{
+		return (recorder != null) ? System.nanoTime() : 0L;
+	}
+
+	/**
+	 * Report a successful operation to the installed recorder, if any. Operations started while nothing was being recorded are
+	 * ignored.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param start
+	 *            the value returned by {@link #start()}
+	 * @param size
+	 *            the size of the input or output, or {@code -1} if unknown
+	 */
+	static void success(Operation operation, long start, long size)
+	{
+		final Recorder current = recorder;
+		if ((current != null) && (start != 0L))
+		{
+			current.success(operation, System.nanoTime() - start, size);
+		}
+	}
+
+	/**
+	 * Report a failed operation to the installed recorder, if any.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param start
+	 *            the value returned by {@link #start()}, or {@code 0} if the operation was not timed
+	 * @param cause
+	 *            the failure
+	 */
+	static void failure(Operation operation, long start, Throwable cause)
+	{
+		final Recorder current = recorder;
+		if (current != null)
+		{
+			current.failure(operation, (start != 0L) ? System.nanoTime() - start : 0L, cause);
+		}
+	}
+
+	/**
+	 * The instrumented operations.
+	 */
+	public enum Operation
+	{
+		/**
+		 * Serialization to a JSON String, stream, writer or buffer; the size is the number of characters or bytes produced.
+		 */
+		TO_JSON,
+
+		/**
+		 * Parsing of a JSON object into a {@link Map}; the size is the number of characters or bytes parsed.
+		 */
+		TO_MAP,
+
+		/**
+		 * Encoding to the binary format of {@link Things#toBinary(Object)}; the size is the number of bytes produced.
+		 */
+		TO_BINARY,
+
+		/**
+		 * Decoding of a binary message into a {@link Map}; the size is the number of bytes decoded.
+		 */
+		FROM_BINARY,
+
+		/**
+		 * A failed {@code verify}; only failures are reported, and they are not timed.
+		 */
+		VERIFY
+	}
+
+	/**
+	 * Receives the measurements of the instrumented operations. Recorders are called on the thread performing the operation, so
+	 * they must be thread-safe, cheap and must not throw.
+	 */
+	public interface Recorder
+	{
+		/**
+		 * Record a successful operation.
+		 *
+		 * @param operation
+		 *            the operation
+		 * @param nanos
+		 *            the elapsed time in nanoseconds
+		 * @param size
+		 *            the size of the input or output, or {@code -1} if unknown
+		 */
+		void success(Operation operation, long nanos, long size);
+
+		/**
+		 * Record a failed operation.
+		 *
+		 * @param operation
+		 *            the operation
+		 * @param nanos
+		 *            the elapsed time in nanoseconds, or {@code 0} if the operation was not timed
+		 * @param cause
+		 *            the failure, whether it was thrown or swallowed
+		 */
+		void failure(Operation operation, long nanos, Throwable cause);
+	}
+
+	/**
+	 * A {@link Recorder} keeping counters and histograms per {@link Operation} in memory. Every counter is a {@link LongAdder},
+	 * so concurrent threads record into separate cells instead of contending on a single value.
+	 */
+	public static final class Registry implements Recorder
+	{
+		private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+		/**
+		 * Create a registry with empty statistics for every {@link Operation}.
+		 */
+		public Registry()
+		{
+			for (final Operation operation : Operation.values())
+			{
+				stats.put(operation, new Stats());
+			}
+		}
+
+		/**
+		 * @param operation
+		 *            the operation
+		 * @return the statistics recorded for the given operation
+		 */
+		public Stats stats(Operation operation)
+		{
+			return stats.get(Things.verify(operation, "Operation not specified."));
+		}
+
+		@Override
+		public void success(Operation operation, long nanos, long size)
+		{
+			final Stats s = stats.get(operation);
+			s.latency.record(nanos);
+			if (size >= 0)
+			{
+				s.sizes.record(size);
+			}
+		}
+
+		@Override
+		public void failure(Operation operation, long nanos, Throwable cause)
+		{
+			stats.get(operation).failures.increment();
+		}
+	}
+
+	/**
+	 * The statistics of a single {@link Operation}.
+	 */
+	public static final class Stats
+	{
+		private final LongAdder failures = new LongAdder();
+		private final Histogram latency = new Histogram();
+		private final Histogram sizes = new Histogram();
+
+		Stats()
+		{
+		}
+
+		/**
+		 * @return the number of successful operations
+		 */
+		public long getCount()
+		{
+			return latency.getCount();
+		}
+
+		/**
+		 * @return the number of failed operations
+		 */
+		public long getFailures()
+		{
+			return failures.sum();
+		}
+
+		/**
+		 * @return the elapsed time, in nanoseconds, of the successful operations
+		 */
+		public Histogram getLatency()
+		{
+			return latency;
+		}
+
+		/**
+		 * @return the input or output sizes of the successful operations whose size is known
+		 */
+		public Histogram getSizes()
+		{
+			return sizes;
+		}
+	}
+
+	/**
+	 * A histogram of non-negative values with one bucket per power of two: bucket {@code 0} counts zeros and bucket {@code n}
+	 * counts the values in {@code [2^(n-1), 2^n)}. Recording is a count of leading zeros and two {@link LongAdder} increments.
+	 */
+	public static final class Histogram
+	{
+		private static final int BUCKETS = Long.SIZE + 1;
+
+		private final LongAdder[] buckets = new LongAdder[BUCKETS];
+		private final LongAdder sum = new LongAdder();
+
+		Histogram()
+		{
+			for (int i = 0; i < BUCKETS; i++)
+			{
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		void record(long value)
+		{
+			final long v = Math.max(value, 0L);
+			buckets[Long.SIZE - Long.numberOfLeadingZeros(v)].increment();
+			sum.add(v);
+		}
+
+		/**
+		 * @return the number of recorded values
+		 */
+		public long getCount()
+		{
+			long count = 0;
+			for (final LongAdder bucket : buckets)
+			{
+				count += bucket.sum();
+			}
+			return count;
+		}
+
+		/**
+		 * @return the sum of the recorded values
+		 */
+		public long getSum()
+		{
+			return sum.sum();
+		}
+
+		/**
+		 * @return the count of each bucket
+		 */
+		public long[] getBuckets()
+		{
+			final long[] counts = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++)
+			{
+				counts[i] = buckets[i].sum();
+			}
+			return counts;
+		}
+
+		/**
+		 * Estimate the given percentile as the upper bound of the bucket it falls in, so the estimate is at most twice the actual
+		 * value.
+		 *
+		 * @param percentile
+		 *            the percentile, between {@code 0} and {@code 100}
+		 * @return the estimate, or {@code 0} if nothing was recorded
+		 * @throws IllegalArgumentException
+		 *             if the percentile is not between {@code 0} and {@code 100}
+		 */
+		public long getPercentile(double percentile)
+		{
+			// thrown directly rather than through verify, which would record a failure in the metrics being read
+			if (!((percentile >= 0) && (percentile <= 100)))
+			{
+				throw new IllegalArgumentException("Percentile must be between 0 and 100 but was " + percentile);
+			}
+			final long[] counts = getBuckets();
+			long total = 0;
+			for (final long count : counts)
+			{
+				total += count;
+			}
+			final long rank = (long) Math.ceil((percentile / 100) * total);
+			long seen = 0;
+			for (int i = 0; i < BUCKETS; i++)
+			{
+				seen += counts[i];
+				if ((seen >= rank) && (seen > 0))
+				{
+					return (i == 0) ? 0L : (i == Long.SIZE) ? Long.MAX_VALUE : (1L << i) - 1;
+				}
+			}
+			return 0L;
+		}
+	}
+}
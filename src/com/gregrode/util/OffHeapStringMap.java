@@ -0,0 +1,546 @@
+package com.gregrode.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The <code>OffHeapStringMap</code> class is a {@link java.util.Map} from {@link String} keys to {@link String} values that keeps
+ * both, and its hash index, outside of the Java heap. Entries are appended as UTF-8 records to direct {@link ByteBuffer} chunks,
+ * and an open-addressing index, itself a direct buffer, maps the hash of each key to the position of its record. A map of tens
+ * of millions of entries therefore costs the garbage collector nothing but this object and its chunk list.
+ * <p>
+ * The map can be filled by the JSON conversions of {@link Things}, e.g. {@code Things.toMap(OffHeapStringMap::new, path)}; as a
+ * {@link TextMap}, it receives values that are not JSON strings as their JSON text. Replacing or removing an entry leaves its
+ * old record in place until the map is cleared or closed; {@link #garbageBytes()} reports how much memory is held that way.
+ * <p>
+ * The memory is released by {@link #close()}, or by the garbage collector once the map is unreachable. Once closed, the map and
+ * its views and iterators throw {@link IllegalStateException} rather than read freed memory, and {@link #clear()} invalidates
+ * open iterators. The map does not permit {@code null} keys and is not thread-safe.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class OffHeapStringMap extends AbstractMap<String, String> implements TextMap<String>, AutoCloseable
+{
+
+	private static final int CHUNK_SIZE = 1 << 20;
+	private static final int HEADER = 2 * Integer.BYTES;
+	private static final int DEAD = 0x80000000;
+	private static final int SLOT = Long.BYTES + Integer.BYTES;
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 27;
+	private static final MethodHandle FREE = free();
+
+	private final List<ByteBuffer> chunks = new ArrayList<>();
+	private ByteBuffer index;
+	private int mask;
+	private int size;
+	private int modifications;
+	private long liveBytes;
+	private long garbageBytes;
+	private boolean closed;
+
+	/**
+	 * Create an empty map.
+	 */
+	public OffHeapStringMap()
+	{
+		this(0);
+	}
+
+	/**
+	 * Create an empty map whose index is sized to hold the given number of entries without resizing.
+	 *
+	 * @param expectedSize
+	 *            the expected number of entries
+	 */
+	public OffHeapStringMap(int expectedSize)
+	{
+		allocate(capacityFor(expectedSize));
+	}
+
+	@Override
+	public int size()
+	{
+		ensureOpen();
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(Object key)
+	{
+		ensureOpen();
+		return (key instanceof String) && (slot(encode((String) key), hash((String) key)) >= 0);
+	}
+
+	@Override
+	public String get(Object key)
+	{
+		ensureOpen();
+		if (!(key instanceof String))
+		{
+			return null;
+		}
+		final int slot = slot(encode((String) key), hash((String) key));
+		return (slot < 0) ? null : value(address(slot));
+	}
+
+	@Override
+	public String put(String key, String value)
+	{
+		ensureOpen();
+		Things.verify(key, "Key not specified.");
+		final byte[] k = encode(key);
+		final int hash = hash(key);
+		final long address = append(k, (value == null) ? null : encode(value));
+		final int slot = slot(k, hash);
+		if (slot >= 0)
+		{
+			final long previous = address(slot);
+			final String old = value(previous);
+			kill(previous);
+			index.putLong(slot * SLOT, address + 1);
+			return old;
+		}
+		insert(address, hash);
+		if (++size > ((mask + 1) - ((mask + 1) >> 2)))
+		{
+			rehash((mask + 1) << 1);
+		}
+		return null;
+	}
+
+	@Override
+	public String remove(Object key)
+	{
+		ensureOpen();
+		if (!(key instanceof String))
+		{
+			return null;
+		}
+		final int slot = slot(encode((String) key), hash((String) key));
+		if (slot < 0)
+		{
+			return null;
+		}
+		final long address = address(slot);
+		final String old = value(address);
+		kill(address);
+		shift(slot);
+		size--;
+		return old;
+	}
+
+	@Override
+	public void clear()
+	{
+		ensureOpen();
+		chunks.forEach(OffHeapStringMap::release);
+		chunks.clear();
+		for (int i = 0; i < index.capacity(); i += Long.BYTES)
+		{
+			index.putLong(i, 0L);
+		}
+		size = 0;
+		liveBytes = 0;
+		garbageBytes = 0;
+		modifications++;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet()
+	{
+		ensureOpen();
+		return new EntrySet();
+	}
+
+	/**
+	 * @return the number of off-heap bytes allocated by this map, for its records and its index
+	 */
+	public long allocatedBytes()
+	{
+		long bytes = (index == null) ? 0 : index.capacity();
+		for (final ByteBuffer chunk : chunks)
+		{
+			bytes += chunk.capacity();
+		}
+		return bytes;
+	}
+
+	/**
+	 * @return the number of off-heap bytes held by the records of the current entries
+	 */
+	public long liveBytes()
+	{
+		return liveBytes;
+	}
+
+	/**
+	 * @return the number of off-heap bytes held by the records of replaced and removed entries
+	 */
+	public long garbageBytes()
+	{
+		return garbageBytes;
+	}
+
+	/**
+	 * Release the off-heap memory of this map. The map cannot be used once it is closed; closing it again has no effect.
+	 */
+	@Override
+	public void close()
+	{
+		if (closed)
+		{
+			return;
+		}
+		closed = true;
+		modifications++;
+		chunks.forEach(OffHeapStringMap::release);
+		chunks.clear();
+		release(index);
+		index = null;
+		size = 0;
+		liveBytes = 0;
+		garbageBytes = 0;
+	}
+
+	private void ensureOpen()
+	{
+		if (closed)
+		{
+			throw new IllegalStateException("Map is closed.");
+		}
+	}
+
+	/**
+	 * Append a record to the last chunk, or to a new chunk if it does not fit.
+	 *
+	 * @return the address of the record: the chunk number in the high half and the offset in the low half
+	 */
+	private long append(byte[] key, byte[] value)
+	{
+		final int length = HEADER + key.length + ((value == null) ? 0 : value.length);
+		ByteBuffer chunk = chunks.isEmpty() ? null : chunks.get(chunks.size() - 1);
+		if ((chunk == null) || (chunk.remaining() < length))
+		{
+			chunk = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, length));
+			chunks.add(chunk);
+		}
+		final long address = ((long) (chunks.size() - 1) << 32) | chunk.position();
+		chunk.putInt(key.length).putInt((value == null) ? -1 : value.length).put(key);
+		if (value != null)
+		{
+			chunk.put(value);
+		}
+		liveBytes += length;
+		modifications++;
+		return address;
+	}
+
+	/**
+	 * Mark the record at the given address as no longer part of the map.
+	 */
+	private void kill(long address)
+	{
+		final ByteBuffer chunk = chunks.get((int) (address >>> 32));
+		final int offset = (int) address;
+		final int keyLength = chunk.getInt(offset);
+		final int valueLength = chunk.getInt(offset + Integer.BYTES);
+		chunk.putInt(offset, keyLength | DEAD);
+		final int length = HEADER + keyLength + Math.max(valueLength, 0);
+		liveBytes -= length;
+		garbageBytes += length;
+		modifications++;
+	}
+
+	private String value(long address)
+	{
+		final ByteBuffer chunk = chunks.get((int) (address >>> 32));
+		final int offset = (int) address;
+		final int keyLength = chunk.getInt(offset) & ~DEAD;
+		final int valueLength = chunk.getInt(offset + Integer.BYTES);
+		return (valueLength < 0) ? null : decode(chunk, offset + HEADER + keyLength, valueLength);
+	}
+
+	private String key(long address)
+	{
+		final ByteBuffer chunk = chunks.get((int) (address >>> 32));
+		final int offset = (int) address;
+		return decode(chunk, offset + HEADER, chunk.getInt(offset) & ~DEAD);
+	}
+
+	private long address(int slot)
+	{
+		return index.getLong(slot * SLOT) - 1;
+	}
+
+	private int slot(byte[] key, int hash)
+	{
+		for (int slot = hash & mask;; slot = (slot + 1) & mask)
+		{
+			final long stored = index.getLong(slot * SLOT);
+			if (stored == 0L)
+			{
+				return -1;
+			}
+			if ((index.getInt((slot * SLOT) + Long.BYTES) == hash) && matches(stored - 1, key))
+			{
+				return slot;
+			}
+		}
+	}
+
+	private boolean matches(long address, byte[] key)
+	{
+		final ByteBuffer chunk = chunks.get((int) (address >>> 32));
+		final int offset = (int) address;
+		if (chunk.getInt(offset) != key.length)
+		{
+			return false;
+		}
+		final int start = offset + HEADER;
+		for (int i = 0; i < key.length; i++)
+		{
+			if (chunk.get(start + i) != key[i])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void insert(long address, int hash)
+	{
+		int slot = hash & mask;
+		while (index.getLong(slot * SLOT) != 0L)
+		{
+			slot = (slot + 1) & mask;
+		}
+		index.putLong(slot * SLOT, address + 1);
+		index.putInt((slot * SLOT) + Long.BYTES, hash);
+	}
+
+	private void shift(int gap)
+	{
+		for (int next = (gap + 1) & mask; index.getLong(next * SLOT) != 0L; next = (next + 1) & mask)
+		{
+			final int hash = index.getInt((next * SLOT) + Long.BYTES);
+			if ((((next - hash) & mask)) >= ((next - gap) & mask))
+			{
+				index.putLong(gap * SLOT, index.getLong(next * SLOT));
+				index.putInt((gap * SLOT) + Long.BYTES, hash);
+				gap = next;
+			}
+		}
+		index.putLong(gap * SLOT, 0L);
+	}
+
+	private void rehash(int capacity)
+	{
+		if (capacity > MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Too many entries: " + size);
+		}
+		final ByteBuffer old = index;
+		allocate(capacity);
+		for (int i = 0; i < old.capacity(); i += SLOT)
+		{
+			final long stored = old.getLong(i);
+			if (stored != 0L)
+			{
+				insert(stored - 1, old.getInt(i + Long.BYTES));
+			}
+		}
+		release(old);
+	}
+
+	private void allocate(int capacity)
+	{
+		index = ByteBuffer.allocateDirect(capacity * SLOT);
+		mask = capacity - 1;
+	}
+
+	private static int capacityFor(int expectedSize)
+	{
+		final long needed = Math.max(MIN_CAPACITY, (4L * expectedSize) / 3 + 1);
+		if (needed > MAX_CAPACITY)
+		{
+			throw new IllegalArgumentException("Too many entries: " + expectedSize);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+
+	private static int hash(String key)
+	{
+		final int h = key.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private static byte[] encode(String s)
+	{
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String decode(ByteBuffer chunk, int offset, int length)
+	{
+		final byte[] bytes = new byte[length];
+		// a bulk copy through a view, as absolute bulk gets only exist from Java 13
+		final ByteBuffer view = chunk.duplicate();
+		view.position(offset);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Free the memory of the given direct buffer now rather than when it is collected, where the JVM allows it.
+	 */
+	private static void release(ByteBuffer buffer)
+	{
+		if ((FREE != null) && (buffer != null))
+		{
+			try
+			{
+				FREE.invokeExact(buffer);
+			}
+			catch (final Throwable e)
+			{
+				// left to the garbage collector
+			}
+		}
+	}
+
+	/**
+	 * Look up {@code sun.misc.Unsafe.invokeCleaner}, available from Java 9.
+	 */
+	private static MethodHandle free()
+	{
+		try
+		{
+			final Class<?> unsafe = Class.forName("sun.misc.Unsafe");
+			final Field field = unsafe.getDeclaredField("theUnsafe");
+			field.setAccessible(true);
+			return MethodHandles.lookup()
+					.findVirtual(unsafe, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+					.bindTo(field.get(null));
+		}
+		catch (final ReflectiveOperationException | RuntimeException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * The entries of the map, in the order their records were written.
+	 */
+	private final class EntrySet extends AbstractSet<Entry<String, String>>
+	{
+		@Override
+		public int size()
+		{
+			return OffHeapStringMap.this.size();
+		}
+
+		@Override
+		public Iterator<Entry<String, String>> iterator()
+		{
+			ensureOpen();
+			return new EntryIterator();
+		}
+
+		@Override
+		public void clear()
+		{
+			OffHeapStringMap.this.clear();
+		}
+	}
+
+	private final class EntryIterator implements Iterator<Entry<String, String>>
+	{
+		private int chunk;
+		private int offset;
+		private long next = advance();
+		private String last;
+		private int expected = modifications;
+
+		@Override
+		public boolean hasNext()
+		{
+			ensureOpen();
+			return next >= 0;
+		}
+
+		@Override
+		public Entry<String, String> next()
+		{
+			ensureOpen();
+			if (next < 0)
+			{
+				throw new NoSuchElementException();
+			}
+			if (expected != modifications)
+			{
+				throw new ConcurrentModificationException();
+			}
+			final Entry<String, String> entry = new SimpleImmutableEntry<>(key(next), value(next));
+			last = entry.getKey();
+			next = advance();
+			return entry;
+		}
+
+		@Override
+		public void remove()
+		{
+			ensureOpen();
+			if (last == null)
+			{
+				throw new IllegalStateException();
+			}
+			if (expected != modifications)
+			{
+				throw new ConcurrentModificationException();
+			}
+			OffHeapStringMap.this.remove(last);
+			expected = modifications;
+			last = null;
+		}
+
+		/**
+		 * Move past the next live record.
+		 *
+		 * @return its address, or {@code -1} if there is none
+		 */
+		private long advance()
+		{
+			while (chunk < chunks.size())
+			{
+				final ByteBuffer buffer = chunks.get(chunk);
+				while (offset < buffer.position())
+				{
+					final long address = ((long) chunk << 32) | offset;
+					final int keyLength = buffer.getInt(offset);
+					final int valueLength = buffer.getInt(offset + Integer.BYTES);
+					offset += HEADER + (keyLength & ~DEAD) + Math.max(valueLength, 0);
+					if ((keyLength & DEAD) == 0)
+					{
+						return address;
+					}
+				}
+				chunk++;
+				offset = 0;
+			}
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,353 @@
+package com.gregrode.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The <code>Tasks</code> class runs the {@link Callable} and {@link Voidable} tasks handed to the asynchronous methods of
+ * {@link Things}. Unless an {@link Executor} is given, each task runs on its own virtual thread when the JVM supports them
+ * (Java 21 and later), so blocking tasks can be fanned out by the thousand; older JVMs fall back to a shared, unbounded pool of
+ * daemon threads.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class Tasks
+{
+
+	private static final Executor DEFAULT = defaultExecutor();
+
+	private Tasks()
+	{
+	}
+
+	/**
+	 * @return the executor used when none is given
+	 */
+	static Executor executor()
+	{
+		return DEFAULT;
+	}
+
+	/**
+	 * Run the given task on the given executor.
+	 *
+	 * @param callable
+	 *            the task
+	 * @param executor
+	 *            the executor to run the task on
+	 * @param <T>
+	 *            the type of the result
+	 * @return a future completed with the result of the task, or exceptionally with what it threw; cancelling the future
+	 *         interrupts the task
+	 */
+	static <T> CompletableFuture<T> submit(Callable<T> callable, Executor executor)
+	{
+		final Task<T> task = new Task<>(callable, null);
+		executor.execute(task);
+		return task;
+	}
+
+	/**
+	 * Run the given tasks on the given executor, at most {@code maxConcurrency} at a time, and wait until they all complete or
+	 * the timeout expires. Tasks still running when the timeout expires are interrupted and tasks not yet started are never run;
+	 * the futures of both are cancelled.
+	 *
+	 * @param tasks
+	 *            the tasks
+	 * @param maxConcurrency
+	 *            the maximum number of tasks running at the same time
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param executor
+	 *            the executor to run the tasks on
+	 * @param <T>
+	 *            the type of the results
+	 * @return one completed future per task, in the iteration order of the tasks
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting; every task is cancelled.
+	 */
+	static <T> List<CompletableFuture<T>> invokeAll(Collection<? extends Callable<T>> tasks, int maxConcurrency, Duration timeout,
+			Executor executor) throws InterruptedException
+	{
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		final Semaphore permits = new Semaphore(maxConcurrency);
+		final List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+		for (final Callable<T> callable : tasks)
+		{
+			futures.add(new Task<>(callable, permits));
+		}
+		try
+		{
+			for (final CompletableFuture<T> future : futures)
+			{
+				final long remaining = deadline - System.nanoTime();
+				if ((remaining <= 0) || !permits.tryAcquire(remaining, TimeUnit.NANOSECONDS))
+				{
+					break;
+				}
+				executor.execute((Task<T>) future);
+			}
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+					.get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+		}
+		catch (final TimeoutException | ExecutionException e)
+		{
+			// the outcome of every task is held by its future
+		}
+		finally
+		{
+			futures.forEach(f -> f.cancel(true));
+		}
+		return futures;
+	}
+
+	/**
+	 * Close the given resources concurrently, each on a task of the default executor, and wait until they are all closed or the
+	 * timeout expires. Every resource is attempted, whatever happens to the others.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param closeables
+	 *            the resources to close; {@code null} elements are skipped
+	 * @return the time each resource took to close, in the order the resources were given
+	 * @throws CloseException
+	 *             if a resource failed to close, or had not finished closing when the timeout expired.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting; the resources still closing are interrupted.
+	 */
+	static List<Duration> close(Duration timeout, AutoCloseable[] closeables) throws CloseException, InterruptedException
+	{
+		return close(timeout, closeables, DEFAULT);
+	}
+
+	/**
+	 * Close the given resources concurrently, each on a task of the given executor, and wait until they are all closed or the
+	 * timeout expires. Every resource is attempted, whatever happens to the others, but the timeout bounds the whole call:
+	 * resources still closing when it expires are interrupted, and resources the executor has not started on by then are never
+	 * closed. Both are reported as a {@link TimeoutException}.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param closeables
+	 *            the resources to close; {@code null} elements are skipped
+	 * @param executor
+	 *            the executor to run the closes on
+	 * @return the time each resource took to close, in the order the resources were given
+	 * @throws CloseException
+	 *             if a resource failed to close, or had not finished closing when the timeout expired.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting; the resources still closing are interrupted.
+	 */
+	static List<Duration> close(Duration timeout, AutoCloseable[] closeables, Executor executor)
+			throws CloseException, InterruptedException
+	{
+		final long deadline = System.nanoTime() + timeout.toNanos();
+		final List<CompletableFuture<Duration>> futures = new ArrayList<>(closeables.length);
+		for (final AutoCloseable closeable : closeables)
+		{
+			futures.add((closeable == null) ? CompletableFuture.completedFuture(Duration.ZERO) : submit(() -> {
+				final long start = System.nanoTime();
+				try
+				{
+					closeable.close();
+				}
+				catch (final Throwable e)
+				{
+					throw new TimedException(e, System.nanoTime() - start);
+				}
+				return Duration.ofNanos(System.nanoTime() - start);
+			}, executor));
+		}
+		try
+		{
+			CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+					.get(Math.max(deadline - System.nanoTime(), 0L), TimeUnit.NANOSECONDS);
+		}
+		catch (final TimeoutException | ExecutionException e)
+		{
+			// the outcome of every resource is held by its future
+		}
+		finally
+		{
+			futures.forEach(f -> f.cancel(true));
+		}
+
+		final List<Duration> durations = new ArrayList<>(futures.size());
+		final List<Throwable> failures = new ArrayList<>();
+		for (int i = 0; i < futures.size(); i++)
+		{
+			final CompletableFuture<Duration> future = futures.get(i);
+			if (future.isCancelled())
+			{
+				durations.add(null);
+				failures.add(new TimeoutException(((Task<Duration>) future).hasStarted()
+						? closeables[i] + " did not close within " + timeout
+						: closeables[i] + " was not closed, its close had not started within " + timeout));
+				continue;
+			}
+			try
+			{
+				durations.add(future.get());
+			}
+			catch (final ExecutionException e)
+			{
+				final TimedException timed = (TimedException) e.getCause();
+				durations.add(Duration.ofNanos(timed.nanos));
+				failures.add(timed.getCause());
+			}
+		}
+		if (!failures.isEmpty())
+		{
+			final CloseException exception =
+					new CloseException(failures.size() + " of " + closeables.length + " resources failed to close", durations);
+			failures.forEach(exception::addSuppressed);
+			throw exception;
+		}
+		return durations;
+	}
+
+	private static Executor defaultExecutor()
+	{
+		try
+		{
+			return (Executor) MethodHandles.publicLookup()
+					.findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+					.invoke();
+		}
+		catch (final Throwable e)
+		{
+			final AtomicInteger count = new AtomicInteger();
+			final ThreadFactory factory = r -> {
+				final Thread thread = new Thread(r, "things-task-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			};
+			return Executors.newCachedThreadPool(factory);
+		}
+	}
+
+	/**
+	 * Carries the failure of a resource out of its close task along with the time the close took.
+	 */
+	private static final class TimedException extends Exception
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final long nanos;
+
+		TimedException(Throwable cause, long nanos)
+		{
+			super(cause);
+			this.nanos = nanos;
+		}
+	}
+
+	/**
+	 * A task and its future. Cancelling the future before the task starts keeps it from running; cancelling it while the task
+	 * runs interrupts the thread running it.
+	 */
+	private static final class Task<T> extends CompletableFuture<T> implements Runnable
+	{
+		private final Callable<T> callable;
+		private final Semaphore permits;
+		private Thread runner;
+		private boolean started;
+
+		Task(Callable<T> callable, Semaphore permits)
+		{
+			this.callable = callable;
+			this.permits = permits;
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				if (!started())
+				{
+					return;
+				}
+				try
+				{
+					complete(callable.call());
+				}
+				catch (final Throwable e)
+				{
+					completeExceptionally(e);
+				}
+				finally
+				{
+					synchronized (this)
+					{
+						runner = null;
+					}
+					if (isCancelled())
+					{
+						// a late cancellation may have interrupted this thread; do not leak it to the executor's next task
+						Thread.interrupted();
+					}
+				}
+			}
+			finally
+			{
+				if (permits != null)
+				{
+					permits.release();
+				}
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			final boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled && mayInterruptIfRunning)
+			{
+				synchronized (this)
+				{
+					if (runner != null)
+					{
+						runner.interrupt();
+					}
+				}
+			}
+			return cancelled;
+		}
+
+		/**
+		 * @return whether the task was started; once the task is done, and so can no longer start, the answer is final
+		 */
+		synchronized boolean hasStarted()
+		{
+			return started;
+		}
+
+		private synchronized boolean started()
+		{
+			if (isDone())
+			{
+				return false;
+			}
+			runner = Thread.currentThread();
+			started = true;
+			return true;
+		}
+	}
+}
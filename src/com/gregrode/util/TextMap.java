@@ -0,0 +1,18 @@
+package com.gregrode.util;
+
+import java.util.Map;
+
+/**
+ * The <code>TextMap</code> interface marks a {@link Map} that only holds {@link String} values. When the JSON and binary
+ * conversions of {@link Things}, such as {@link Things#toMap(java.util.function.Supplier, String)}, populate a map that
+ * implements it, every value that is not a JSON string is stored as its JSON text rather than bound to a Java object.
+ *
+ * @param <K>
+ *            the type of the keys
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public interface TextMap<K> extends Map<K, String>
+{
+}
@@ -1,25 +1,46 @@
 package com.gregrode.util;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 
 /**
  * The <code>Things</code> class provides functionality to create and verify some of your favorite Java objects
@@ -33,6 +54,36 @@ public final class Things
 
 	private static final String EMPTY = "";
 
+	/**
+	 * The constants of each enum class, fetched once since {@link Class#getEnumConstants()} clones them on every call.
+	 */
+	private static final ClassValue<Object[]> ENUM_CONSTANTS = new ClassValue<Object[]>()
+	{
+		@Override
+		protected Object[] computeValue(Class<?> type)
+		{
+			return type.getEnumConstants();
+		}
+	};
+
+	/**
+	 * The immutable maps built by {@link #toConstantMap(Class, Function)}, per enum class and function.
+	 */
+	private static final ClassValue<ConcurrentMap<Function<?, ?>, Map<?, ?>>> CONSTANT_MAPS =
+			new ClassValue<ConcurrentMap<Function<?, ?>, Map<?, ?>>>()
+	{
+		@Override
+		protected ConcurrentMap<Function<?, ?>, Map<?, ?>> computeValue(Class<?> type)
+		{
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	/**
+	 * A parallel threshold no collection reaches, the default for the collection conversions.
+	 */
+	private static final int SEQUENTIAL = Integer.MAX_VALUE;
+
 	private Things()
 	{
 	}
@@ -215,7 +266,11 @@ public final class Things
 	 */
 	public static <T> T verify(T t)
 	{
-		return Objects.requireNonNull(t);
+		if (t == null)
+		{
+			throw failed(new NullPointerException());
+		}
+		return t;
 	}
 
 	/**
@@ -231,7 +286,11 @@ public final class Things
 	 */
 	public static <T> T verify(T t, String message)
 	{
-		return Objects.requireNonNull(t, message);
+		if (t == null)
+		{
+			throw failed(new NullPointerException(message));
+		}
+		return t;
 	}
 
 	/**
@@ -248,7 +307,11 @@ public final class Things
 	 */
 	public static <T> T verify(T t, Predicate<T> predicate)
 	{
-		return verify(t, new NullPointerException(), predicate);
+		if (!isValid(t, predicate))
+		{
+			throw failed(new NullPointerException());
+		}
+		return t;
 	}
 
 	/**
@@ -267,7 +330,65 @@ public final class Things
 	 */
 	public static <T> T verify(T t, String message, Predicate<T> predicate)
 	{
-		return verify(t, new NullPointerException(message), predicate);
+		if (!isValid(t, predicate))
+		{
+			throw failed(new NullPointerException(message));
+		}
+		return t;
+	}
+
+	/**
+	 * Check whether the given object is null or valid based on the given predicate. if the predicate fails, a
+	 * {@link NullPointerException} is thrown with the message built from the given format and argument. The message is only
+	 * formatted when the check fails.
+	 *
+	 * @param t
+	 *            the object to check
+	 * @param predicate
+	 *            the predicate to test
+	 * @param format
+	 *            the {@link String#format(String, Object...)} format of the message within the exception
+	 * @param arg
+	 *            the argument referenced by the format
+	 * @param <T>
+	 *            the type of object
+	 * @return T
+	 */
+	public static <T> T verify(T t, Predicate<T> predicate, String format, Object arg)
+	{
+		if (!isValid(t, predicate))
+		{
+			throw failed(new NullPointerException(String.format(format, arg)));
+		}
+		return t;
+	}
+
+	/**
+	 * Check whether the given object is null or valid based on the given predicate. if the predicate fails, a
+	 * {@link NullPointerException} is thrown with the message built from the given format and arguments. The message is only
+	 * formatted when the check fails.
+	 *
+	 * @param t
+	 *            the object to check
+	 * @param predicate
+	 *            the predicate to test
+	 * @param format
+	 *            the {@link String#format(String, Object...)} format of the message within the exception
+	 * @param arg1
+	 *            the first argument referenced by the format
+	 * @param arg2
+	 *            the second argument referenced by the format
+	 * @param <T>
+	 *            the type of object
+	 * @return T
+	 */
+	public static <T> T verify(T t, Predicate<T> predicate, String format, Object arg1, Object arg2)
+	{
+		if (!isValid(t, predicate))
+		{
+			throw failed(new NullPointerException(String.format(format, arg1, arg2)));
+		}
+		return t;
 	}
 
 	/**
@@ -286,6 +407,49 @@ public final class Things
 		return verify(t, exception, o -> true);
 	}
 
+	/**
+	 * Check whether the given object is empty. if so, the {@link RuntimeException} created by the given {@link Supplier} is thrown.
+	 * The exception is only created when the check fails. A {@code null} object throws a {@link NullPointerException}, as
+	 * {@link #verify(Object, RuntimeException)} does.
+	 *
+	 * @param t
+	 *            the object to check
+	 * @param exception
+	 *            the {@link Supplier} of the {@link RuntimeException} to throw
+	 * @param <T>
+	 *            the type of object
+	 * @return T
+	 */
+	public static <T> T verify(T t, Supplier<? extends RuntimeException> exception)
+	{
+		return verify(t, exception, o -> true);
+	}
+
+	/**
+	 * Behaves as {@link #verify(Object, RuntimeException, Predicate)}, except that the {@link RuntimeException} is created by the
+	 * given {@link Supplier} only when the check fails, so nothing is allocated when it succeeds. A {@code null} object or
+	 * predicate throws a {@link NullPointerException}, as it always has.
+	 *
+	 * @param t
+	 *            the object to check
+	 * @param exception
+	 *            the {@link Supplier} of the {@link RuntimeException} to throw
+	 * @param predicate
+	 *            the {@link Predicate} object to test
+	 * @param <T>
+	 *            the type of object
+	 * @return T
+	 */
+	public static <T> T verify(T t, Supplier<? extends RuntimeException> exception, Predicate<T> predicate)
+	{
+		Objects.requireNonNull(exception, "Exception was not specified.");
+		if (!isValid(t, predicate))
+		{
+			throw failed(exception.get());
+		}
+		return t;
+	}
+
 	/**
 	 *
 	 * This method will throw an instance of {@link RuntimeException} if one of the following cases occurs:
@@ -312,20 +476,64 @@ public final class Things
 	 */
 	public static <T> T verify(T t, RuntimeException exception, Predicate<T> predicate)
 	{
-		Objects.requireNonNull(t, "Object was not specified.");
 		Objects.requireNonNull(exception, "Exception was not specified.");
-		Objects.requireNonNull(predicate, "Predicate was not specified.");
-
-		if (((t instanceof Boolean) && !((Boolean) t).booleanValue()) || ((t instanceof String) && ((String) t).isEmpty())
-				|| ((t instanceof Collection) && ((Collection<?>) t).isEmpty())
-				|| ((t instanceof Map) && ((Map<?, ?>) t).isEmpty()) || ((t instanceof Object[]) && isEmpty(t))
-				|| (!predicate.test(t)))
+		if (!isValid(t, predicate))
 		{
-			throw exception;
+			throw failed(exception);
 		}
 		return t;
 	}
 
+	/**
+	 * The checks shared by the predicate based {@code verify} methods. A {@code null} object or predicate is reported with a
+	 * {@link NullPointerException}, as it always has been; otherwise {@code false} is returned if the object is empty or fails the
+	 * predicate.
+	 */
+	private static <T> boolean isValid(T t, Predicate<T> predicate)
+	{
+		verify(t, "Object was not specified.");
+		verify(predicate, "Predicate was not specified.");
+		return !isBlank(t) && predicate.test(t);
+	}
+
+	/**
+	 * Report a failed {@code verify} to the installed {@link Metrics.Recorder}, if any.
+	 *
+	 * @param exception
+	 *            the exception about to be thrown
+	 * @return the given exception
+	 */
+	private static <X extends RuntimeException> X failed(X exception)
+	{
+		Metrics.failure(Metrics.Operation.VERIFY, 0L, exception);
+		return exception;
+	}
+
+	/**
+	 * Check whether the given object is one of the empty values rejected by {@code verify}: {@code false}, or an empty
+	 * {@link String}, {@link Collection} or {@link Map}.
+	 *
+	 * @param t
+	 *            the non-null object to check
+	 * @return boolean
+	 */
+	static boolean isBlank(Object t)
+	{
+		if (t instanceof String)
+		{
+			return ((String) t).isEmpty();
+		}
+		if (t instanceof Boolean)
+		{
+			return !((Boolean) t).booleanValue();
+		}
+		if (t instanceof Collection)
+		{
+			return ((Collection<?>) t).isEmpty();
+		}
+		return (t instanceof Map) && ((Map<?, ?>) t).isEmpty();
+	}
+
 	/**
 	 * Check if the first parameter is not null, if so, {@code first} is returned. Otherwise, {@code def} is returned
 	 *
@@ -356,16 +564,82 @@ public final class Things
 	}
 
 	/**
-	 * Get the first non zero integer within the given varargs
+	 * Create a thread-safe {@link Supplier} that calls the given supplier once, the first time its value is needed, and returns
+	 * that value from then on; see {@link Lazy}. Suited to expensive defaults handed to {@link #nonNull(Object, Supplier)}.
+	 *
+	 * @param supplier
+	 *            the supplier of the value
+	 * @param <T>
+	 *            the type of the value
+	 * @return {@link Lazy}
+	 */
+	public static <T> Lazy<T> lazy(Supplier<? extends T> supplier)
+	{
+		return new Lazy<>(verify(supplier, () -> new IllegalArgumentException("Supplier not specified.")), 0L);
+	}
+
+	/**
+	 * Create a thread-safe {@link Supplier} that calls the given supplier the first time its value is needed and again each time
+	 * the value has been held for longer than the given time to live. A single thread refreshes an expired value while the other
+	 * threads keep reading the previous one; see {@link Lazy}.
+	 *
+	 * @param supplier
+	 *            the supplier of the value
+	 * @param ttl
+	 *            the time to live of the value
+	 * @param <T>
+	 *            the type of the value
+	 * @return {@link Lazy}
+	 */
+	public static <T> Lazy<T> lazy(Supplier<? extends T> supplier, Duration ttl)
+	{
+		verify(supplier, () -> new IllegalArgumentException("Supplier not specified."));
+		verify(ttl, () -> new IllegalArgumentException("Time to live must be positive."), d -> !d.isNegative() && !d.isZero());
+		return new Lazy<>(supplier, ttl.toNanos());
+	}
+
+	/**
+	 * Wrap the given pure {@link Function} in a concurrent, bounded cache of its results; see {@link Memoizer}. Each input is
+	 * computed at most once while its result is cached, even when it is requested by several threads at the same time.
+	 *
+	 * @param function
+	 *            the function to memoize
+	 * @param options
+	 *            the bounds of the cache, created with {@link Memoizer#options()}
+	 * @param <K>
+	 *            the type of the function input
+	 * @param <V>
+	 *            the type of the function result
+	 * @return {@link Memoizer}
+	 */
+	public static <K, V> Memoizer<K, V> memoize(Function<? super K, ? extends V> function, Memoizer.Options<K, V> options)
+	{
+		verify(function, () -> new IllegalArgumentException("Function not specified."));
+		verify(options, () -> new IllegalArgumentException("Options not specified."));
+		return new Memoizer<>(function, options);
+	}
+
+	/**
+	 * Get the first non zero integer within the given varargs. Note that only positive integers are considered; see
+	 * {@link ArrayScans} to scan large arrays for any non-zero value.
 	 *
 	 * @param things
 	 *            the list of i
 	 * @return first non zero integer
+	 * @throws NoSuchElementException
+	 *             if none of the integers is positive
 	 **/
 	@SafeVarargs
 	public static int nonZero(int... things)
 	{
-		return Arrays.stream(things).filter(t -> t > 0).findFirst().getAsInt();
+		for (final int thing : things)
+		{
+			if (thing > 0)
+			{
+				return thing;
+			}
+		}
+		throw new NoSuchElementException("No value present");
 	}
 
 	/**
@@ -474,12 +748,51 @@ public final class Things
 	public static <K, V, M extends Map<K, V>, T, C extends Collection<T>> M toMap(Supplier<M> mapSupplier,
 			Function<T, K> keyMapper, Function<T, V> valueMapper, C items)
 	{
-		verify(items, new IllegalArgumentException("Collection not specified."));
-		verify(keyMapper, new IllegalArgumentException("Key mapper not specified."));
-		verify(valueMapper, new IllegalArgumentException("Value mapper not specified."));
-		verify(mapSupplier, new IllegalArgumentException("Implementation of Map was not specified."));
+		return toMap(mapSupplier, keyMapper, valueMapper, items, SEQUENTIAL);
+	}
+
+	/**
+	 * Create an implementation of the {@link Map} interface using the given {@link Supplier} object, the {@link Function} objects
+	 * to determine the key/value and populate the map with the given {@link Collection}. Collections holding at least
+	 * {@code parallelThreshold} items are split across the common fork-join pool; each split fills its own map from the supplier
+	 * and the partial maps are merged in encounter order, so the first value mapped to a key is still the one kept.
+	 *
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            the collection of items
+	 * @param parallelThreshold
+	 *            the minimum number of items for which the work is done in parallel
+	 * @param <K>
+	 *            The type of object for the map key
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @param <M>
+	 *            The type of object for the map
+	 * @param <T>
+	 *            the type of object in the Collection
+	 * @param <C>
+	 *            The type of object for the Collection
+	 * @return {@link Map}
+	 */
+	public static <K, V, M extends Map<K, V>, T, C extends Collection<T>> M toMap(Supplier<M> mapSupplier,
+			Function<T, K> keyMapper, Function<T, V> valueMapper, C items, int parallelThreshold)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+		verify(mapSupplier, () -> new IllegalArgumentException("Implementation of Map was not specified."));
 
-		return items.stream().collect(Collectors.toMap(keyMapper, valueMapper, (m, m2) -> m, mapSupplier));
+		final ThingsEvents.Conversion event = new ThingsEvents.Conversion();
+		event.begin();
+		final Stream<T> stream = stream(items, parallelThreshold);
+		final M map = stream.collect(Collectors.toMap(keyMapper, valueMapper, (m, m2) -> m, mapSupplier));
+		event.finish("toMap", items.size(), map, stream.isParallel());
+		return map;
 	}
 
 	/**
@@ -496,7 +809,8 @@ public final class Things
 
 	/**
 	 * Create an implementation of the {@link Map} interface using the given {@link Supplier} object and populate the map with the
-	 * given JSON
+	 * given JSON. The JSON is read in a single streaming pass directly into the supplied map; single-quoted names and values are
+	 * accepted.
 	 *
 	 * @param json
 	 *            the JSON String
@@ -506,111 +820,1273 @@ public final class Things
 	 *            The type of object for the map value
 	 * @return {@link Map}
 	 */
-	@SuppressWarnings("unchecked")
 	public static <K, V, M extends Map<K, V>> Map<K, V> toMap(Supplier<M> mapSupplier, String json)
 	{
 		verify(json, "Cannot transform null string in Map.");
-		try
+		final M map = verify(verify(mapSupplier).get(), "Supplier is null");
+		final ThingsEvents.ToMap event = new ThingsEvents.ToMap();
+		event.begin();
+		final long start = Metrics.start();
+		try (JsonParser parser = JsonMappers.parser(json))
 		{
-			final ObjectMapper mapper = new ObjectMapper();
-			final JsonNode jsonNode = mapper.readTree(json.replaceAll("'", "\""));
-			return mapper.treeToValue(jsonNode, verify(mapSupplier).get().getClass());
+			JsonMappers.readMap(parser, map);
 		}
 		catch (final IOException e)
 		{
+			Metrics.failure(Metrics.Operation.TO_MAP, start, e);
+			event.finish(json.length(), map, true);
 			return new HashMap<>();
 		}
+		Metrics.success(Metrics.Operation.TO_MAP, start, json.length());
+		event.finish(json.length(), map, false);
+		return map;
 	}
 
 	/**
-	 * Create a {@link EnumMap} implementation of the {@link Map} interface using the enum constants as the keys and the result of
-	 * the {@link Function#apply(Object)} as the value.
-	 *
-	 * @param clazz
-	 *            the class of the enum
-	 * @param function
-	 *            the functional interface that indicates how the value will be resolved.
-	 *
-	 * @param <K>
-	 *            The type of object for the map key. Note, in this case the key will be constant within the enum.
-	 * @param <V>
-	 *            The type of object for the map value
+	 * Create a lazy {@link Map} view of the given JSON object. The document is scanned once to index its keys, and each value is
+	 * only decoded the first time it is read; see {@link LazyJsonMap}. Suited to large objects of which only a few keys are read.
 	 *
+	 * @param json
+	 *            the JSON String
 	 * @return {@link Map}
 	 */
-	public static <K extends Enum<K>, V> Map<K, V> toMap(Class<K> clazz, Function<K, V> function)
+	public static Map<String, String> toLazyMap(String json)
 	{
-		verify(clazz, "Enum class not specified.");
-		verify(function, "Function lambda not specified.");
-
-		final EnumMap<K, V> map = new EnumMap<>(clazz);
-		Arrays.stream(clazz.getEnumConstants()).forEach(v -> map.put(v, function.apply(v)));
+		verify(json, "Cannot transform null string in Map.");
+		final ThingsEvents.ToMap event = new ThingsEvents.ToMap();
+		event.begin();
+		final long start = Metrics.start();
+		final Map<String, String> map;
+		try
+		{
+			map = new LazyJsonMap<>(json);
+		}
+		catch (final IOException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_MAP, start, e);
+			final Map<String, String> empty = new HashMap<>();
+			event.finish(json.length(), empty, true);
+			return empty;
+		}
+		Metrics.success(Metrics.Operation.TO_MAP, start, json.length());
+		event.finish(json.length(), map, false);
 		return map;
 	}
 
 	/**
-	 * Create a {@link Entry} object using the {@link AbstractMap.SimpleEntry} implementation.
-	 *
-	 * @param key
-	 *            The key
-	 * @param value
-	 *            the value
+	 * Create a {@link HashMap} from the given UTF-8 encoded JSON object
 	 *
-	 * @param <K>
-	 *            The type of object for the key.
-	 * @param <V>
-	 *            The type of object for the value.
-	 * @return {@link Entry}
+	 * @param json
+	 *            the JSON bytes
+	 * @return {@link Map}
 	 */
-	public static <K, V> Entry<K, V> toEntry(K key, V value)
+	public static Map<String, String> toMap(byte[] json)
 	{
-		return new AbstractMap.SimpleEntry<>(key, value);
+		return toMap(HashMap::new, json);
 	}
 
 	/**
-	 * Convert the given object in the a valid JSON object.
+	 * Create an implementation of the {@link Map} interface using the given {@link Supplier} object and populate the map with the
+	 * given UTF-8 encoded JSON. The bytes are parsed directly, without decoding them into a String first.
 	 *
-	 * @param obj
-	 *            The object to transformed into a JSON object.
-	 * @return String
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used
+	 * @param json
+	 *            the JSON bytes
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
 	 */
-	public static String toJSON(Object obj)
+	public static <K, V, M extends Map<K, V>> Map<K, V> toMap(Supplier<M> mapSupplier, byte[] json)
 	{
-		verify(obj, "Cannot transform null object in JSON.");
-		try
+		verify(json, "Cannot transform null bytes in Map.");
+		final M map = verify(verify(mapSupplier).get(), "Supplier is null");
+		final ThingsEvents.ToMap event = new ThingsEvents.ToMap();
+		event.begin();
+		final long start = Metrics.start();
+		try (JsonParser parser = JsonMappers.parser(json, 0, json.length))
 		{
-			final ObjectMapper mapper = new ObjectMapper();
-			return mapper.writeValueAsString(obj);
+			JsonMappers.readMap(parser, map);
 		}
 		catch (final IOException e)
 		{
-			return EMPTY;
+			Metrics.failure(Metrics.Operation.TO_MAP, start, e);
+			event.finish(json.length, map, true);
+			return new HashMap<>();
 		}
+		Metrics.success(Metrics.Operation.TO_MAP, start, json.length);
+		event.finish(json.length, map, false);
+		return map;
 	}
 
 	/**
-	 * Pluck value out of the given {@link Collection} based on the given {@link Function} object and return them as a Collection
+	 * Create a {@link HashMap} from the UTF-8 encoded JSON object held in the remaining bytes of the given buffer
 	 *
-	 * @param items
-	 *            the collection of itmes
-	 * @param function
-	 *            the functional interface that determine what value will be plucked.
-	 * @return {@link Collection}
+	 * @param json
+	 *            the JSON buffer
+	 * @return {@link Map}
 	 */
-	public static <T, R> Collection<R> pluck(Collection<T> items, Function<T, R> function)
+	public static Map<String, String> toMap(ByteBuffer json)
 	{
-		verify(items, new IllegalArgumentException("Collection not specified"));
-		verify(function, new IllegalArgumentException("function lambda not specified"));
-
-		return items.stream().collect(Collectors.mapping(function, Collectors.toList()));
+		return toMap(HashMap::new, json);
 	}
 
 	/**
-	 * Build upon the given object.
+	 * Create an implementation of the {@link Map} interface using the given {@link Supplier} object and populate the map with the
+	 * UTF-8 encoded JSON held in the remaining bytes of the given buffer. Heap and direct buffers are both parsed without copying
+	 * the content onto the heap as a whole, and the position of the buffer is not changed.
 	 *
-	 * @param t
-	 *            the object to build
-	 * @param builder
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used
+	 * @param json
+	 *            the JSON buffer
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V, M extends Map<K, V>> Map<K, V> toMap(Supplier<M> mapSupplier, ByteBuffer json)
+	{
+		verify(json, "Cannot transform null buffer in Map.");
+		final M map = verify(verify(mapSupplier).get(), "Supplier is null");
+		final int size = json.remaining();
+		final ThingsEvents.ToMap event = new ThingsEvents.ToMap();
+		event.begin();
+		final long start = Metrics.start();
+		try (JsonParser parser = JsonMappers.parser(json))
+		{
+			JsonMappers.readMap(parser, map);
+		}
+		catch (final IOException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_MAP, start, e);
+			event.finish(size, map, true);
+			return new HashMap<>();
+		}
+		Metrics.success(Metrics.Operation.TO_MAP, start, size);
+		event.finish(size, map, false);
+		return map;
+	}
+
+	/**
+	 * Create a {@link HashMap} from the UTF-8 encoded JSON object stored in the given file
+	 *
+	 * @param json
+	 *            the path of the JSON file
+	 * @return {@link Map}
+	 * @throws IOException
+	 *             if the file cannot be read or does not hold a JSON object.
+	 */
+	public static Map<String, String> toMap(Path json) throws IOException
+	{
+		return toMap(HashMap::new, json);
+	}
+
+	/**
+	 * Create an implementation of the {@link Map} interface using the given {@link Supplier} object and populate the map with the
+	 * UTF-8 encoded JSON object stored in the given file. The file is memory-mapped and parsed straight from the mapping; files too
+	 * large to be mapped as a single buffer are streamed instead.
+	 *
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used
+	 * @param json
+	 *            the path of the JSON file
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 * @throws IOException
+	 *             if the file cannot be read or does not hold a JSON object.
+	 */
+	public static <K, V, M extends Map<K, V>> Map<K, V> toMap(Supplier<M> mapSupplier, Path json) throws IOException
+	{
+		verify(json, "Path not specified.");
+		final M map = verify(verify(mapSupplier).get(), "Supplier is null");
+		final ThingsEvents.ToMap event = new ThingsEvents.ToMap();
+		event.begin();
+		final long start = Metrics.start();
+		long size = -1;
+		try (FileChannel channel = FileChannel.open(json, StandardOpenOption.READ))
+		{
+			size = channel.size();
+			try (JsonParser parser = (size <= Integer.MAX_VALUE)
+					? JsonMappers.parser(channel.map(FileChannel.MapMode.READ_ONLY, 0, size))
+					: JsonMappers.parser(Channels.newInputStream(channel)))
+			{
+				JsonMappers.readMap(parser, map);
+			}
+		}
+		catch (final IOException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_MAP, start, e);
+			event.finish(size, map, true);
+			throw e;
+		}
+		Metrics.success(Metrics.Operation.TO_MAP, start, size);
+		event.finish(size, map, false);
+		return map;
+	}
+
+	/**
+	 * Create a lazy {@link Stream} of the JSON objects read from the given reader, which holds either newline-delimited JSON (one
+	 * object after another, separated by whitespace) or a top-level JSON array of objects. Each object is read into a map created
+	 * by the given {@link Supplier} only when the stream asks for it, so memory stays constant whatever the size of the input.
+	 * <p>
+	 * Parallel streams split the input on record boundaries, in a few batches of records read ahead by the thread splitting; the
+	 * input itself is parsed by one thread at a time. Closing the stream closes the reader; use it in a try-with-resources
+	 * statement. Malformed content fails the terminal operation with an {@link java.io.UncheckedIOException}.
+	 *
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used for each record
+	 * @param json
+	 *            the JSON reader
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Stream}
+	 * @throws IOException
+	 *             if the parser cannot be created.
+	 */
+	public static <K, V, M extends Map<K, V>> Stream<Map<K, V>> toMaps(Supplier<M> mapSupplier, Reader json) throws IOException
+	{
+		verify(mapSupplier, "Supplier is null");
+		verify(json, "Reader not specified.");
+		return toMaps(mapSupplier, JsonMappers.parser(json));
+	}
+
+	/**
+	 * Create a lazy {@link Stream} of the JSON objects read from the given UTF-8 encoded stream, as
+	 * {@link #toMaps(Supplier, Reader)} does. Closing the returned stream closes the input stream.
+	 *
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used for each record
+	 * @param json
+	 *            the JSON stream
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Stream}
+	 * @throws IOException
+	 *             if the parser cannot be created.
+	 */
+	public static <K, V, M extends Map<K, V>> Stream<Map<K, V>> toMaps(Supplier<M> mapSupplier, InputStream json)
+			throws IOException
+	{
+		verify(mapSupplier, "Supplier is null");
+		verify(json, "Input stream not specified.");
+		return toMaps(mapSupplier, JsonMappers.parser(json));
+	}
+
+	/**
+	 * Create a lazy {@link Stream} of the JSON objects read from the given UTF-8 encoded file, as
+	 * {@link #toMaps(Supplier, Reader)} does. The file is read in place rather than mapped, so it may be of any size. When it
+	 * holds newline-delimited JSON, parallel streams split it by position at line breaks and parse the parts concurrently, which
+	 * requires each object to be on a single line. Closing the returned stream closes the file.
+	 *
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used for each record
+	 * @param json
+	 *            the path of the JSON file
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Stream}
+	 * @throws IOException
+	 *             if the file cannot be opened.
+	 */
+	public static <K, V, M extends Map<K, V>> Stream<Map<K, V>> toMaps(Supplier<M> mapSupplier, Path json) throws IOException
+	{
+		verify(mapSupplier, "Supplier is null");
+		verify(json, "Path not specified.");
+		final FileChannel channel = FileChannel.open(json, StandardOpenOption.READ);
+		try
+		{
+			return toMaps(JsonRecords.of(channel, mapSupplier::get));
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+	}
+
+	private static <K, V, M extends Map<K, V>> Stream<Map<K, V>> toMaps(Supplier<M> mapSupplier, JsonParser parser)
+	{
+		return toMaps(new JsonRecords<Map<K, V>>(parser, mapSupplier::get));
+	}
+
+	private static <K, V> Stream<Map<K, V>> toMaps(JsonRecords<Map<K, V>> records)
+	{
+		return StreamSupport.stream(records, false).onClose(records::close);
+	}
+
+	/**
+	 * Create a {@link LinkedHashMap} of the properties of the given bean, keyed by property name in alphabetical order.
+	 * Properties are read from public getters ({@code getX()}, and {@code isX()} for booleans) and public fields; values are
+	 * copied as they are, so nested beans are not converted. A {@link Map} is copied as it is.
+	 * <p>
+	 * The accessors of a class are discovered once and bound to generated functions, so a conversion reads each property with a
+	 * plain method call, without reflection or JSON encoding. To parse JSON into a map, use the {@code toMap} methods instead.
+	 *
+	 * @param bean
+	 *            the bean
+	 * @return {@link Map}
+	 */
+	public static Map<String, Object> beanToMap(Object bean)
+	{
+		verify(bean, "Cannot transform null object in Map.");
+		if (bean instanceof Map)
+		{
+			final Map<String, Object> map = new LinkedHashMap<>();
+			((Map<?, ?>) bean).forEach((k, v) -> map.put(String.valueOf(k), v));
+			return map;
+		}
+		return Beans.read(bean, new LinkedHashMap<>());
+	}
+
+	/**
+	 * Create an instance of the given class with its no-argument constructor and set its properties from the given map, the
+	 * reverse of {@link #beanToMap(Object)}. Properties are written through public setters ({@code setX(value)}, which may
+	 * return a value for chaining) and public non-final fields. Keys that do not name a writable property are ignored, as are
+	 * {@code null} values of primitive properties. Numbers are converted to the numeric type of the setter; other values that do
+	 * not fit, such as nested maps, are converted by the shared JSON mapper.
+	 *
+	 * @param map
+	 *            the property values
+	 * @param clazz
+	 *            the class of the bean
+	 * @param <T>
+	 *            the type of the bean
+	 * @return T
+	 */
+	public static <T> T fromMap(Map<String, ?> map, Class<T> clazz)
+	{
+		verify(map, "Map not specified.");
+		verify(clazz, "Class not specified.");
+		return Beans.write(map, clazz);
+	}
+
+	/**
+	 * Create a {@link EnumMap} implementation of the {@link Map} interface using the enum constants as the keys and the result of
+	 * the {@link Function#apply(Object)} as the value.
+	 *
+	 * @param clazz
+	 *            the class of the enum
+	 * @param function
+	 *            the functional interface that indicates how the value will be resolved.
+	 *
+	 * @param <K>
+	 *            The type of object for the map key. Note, in this case the key will be constant within the enum.
+	 * @param <V>
+	 *            The type of object for the map value
+	 *
+	 * @return {@link Map}
+	 */
+	public static <K extends Enum<K>, V> Map<K, V> toMap(Class<K> clazz, Function<K, V> function)
+	{
+		verify(clazz, "Enum class not specified.");
+		verify(function, "Function lambda not specified.");
+
+		final EnumMap<K, V> map = new EnumMap<>(clazz);
+		for (final Object constant : ENUM_CONSTANTS.get(clazz))
+		{
+			final K key = clazz.cast(constant);
+			map.put(key, function.apply(key));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an immutable {@link EnumMap} using the enum constants as the keys and the result of the
+	 * {@link Function#apply(Object)} as the value. The map is built once per enum class and function, and the same instance is
+	 * returned on every later call, so the function must be free of side effects and its results must not change.
+	 * <p>
+	 * Maps are cached for as long as the enum class is loaded, keyed by the function instance. Pass stateless lambdas, method
+	 * references or constants; a capturing lambda created per call adds an entry per call.
+	 *
+	 * @param clazz
+	 *            the class of the enum
+	 * @param function
+	 *            the functional interface that indicates how the value will be resolved.
+	 *
+	 * @param <K>
+	 *            The type of object for the map key. Note, in this case the key will be constant within the enum.
+	 * @param <V>
+	 *            The type of object for the map value
+	 *
+	 * @return {@link Map}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K extends Enum<K>, V> Map<K, V> toConstantMap(Class<K> clazz, Function<K, V> function)
+	{
+		verify(clazz, "Enum class not specified.");
+		verify(function, "Function lambda not specified.");
+
+		final ConcurrentMap<Function<?, ?>, Map<?, ?>> maps = CONSTANT_MAPS.get(clazz);
+		final Map<?, ?> map = maps.get(function);
+		return (Map<K, V>) ((map != null) ? map
+				: maps.computeIfAbsent(function, f -> Collections.unmodifiableMap(toMap(clazz, function))));
+	}
+
+	/**
+	 * Create an {@link IntObjectMap} using the given mapper functions to determine the {@code int} key and object value, and
+	 * populate it with the given {@link Collection}. Keys are never boxed and, as with
+	 * {@link #toMap(Supplier, Function, Function, Collection)}, the first value mapped to a key is kept.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            the collection of items
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @param <T>
+	 *            the type of object in the Collection
+	 * @param <C>
+	 *            The type of object for the Collection
+	 * @return {@link IntObjectMap}
+	 */
+	public static <V, T, C extends Collection<T>> IntObjectMap<V> toIntMap(ToIntFunction<T> keyMapper, Function<T, V> valueMapper,
+			C items)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final IntObjectMap<V> map = new IntObjectMap<>(items.size());
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsInt(item), valueMapper.apply(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an {@link IntObjectMap} using the given mapper functions to determine the {@code int} key and object value, and
+	 * populate it with the given Array of T objects.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            an Array of T
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @param <T>
+	 *            the type of object in the Array
+	 * @return {@link IntObjectMap}
+	 */
+	@SafeVarargs
+	public static <V, T> IntObjectMap<V> toIntMap(ToIntFunction<T> keyMapper, Function<T, V> valueMapper, T... items)
+	{
+		verify(items, () -> new IllegalArgumentException("Array not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final IntObjectMap<V> map = new IntObjectMap<>(items.length);
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsInt(item), valueMapper.apply(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an {@link LongObjectMap} using the given mapper functions to determine the {@code long} key and object value, and
+	 * populate it with the given {@link Collection}. Keys are never boxed and, as with
+	 * {@link #toMap(Supplier, Function, Function, Collection)}, the first value mapped to a key is kept.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            the collection of items
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @param <T>
+	 *            the type of object in the Collection
+	 * @param <C>
+	 *            The type of object for the Collection
+	 * @return {@link LongObjectMap}
+	 */
+	public static <V, T, C extends Collection<T>> LongObjectMap<V> toLongMap(ToLongFunction<T> keyMapper,
+			Function<T, V> valueMapper, C items)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final LongObjectMap<V> map = new LongObjectMap<>(items.size());
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsLong(item), valueMapper.apply(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an {@link LongObjectMap} using the given mapper functions to determine the {@code long} key and object value, and
+	 * populate it with the given Array of T objects.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            an Array of T
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @param <T>
+	 *            the type of object in the Array
+	 * @return {@link LongObjectMap}
+	 */
+	@SafeVarargs
+	public static <V, T> LongObjectMap<V> toLongMap(ToLongFunction<T> keyMapper, Function<T, V> valueMapper, T... items)
+	{
+		verify(items, () -> new IllegalArgumentException("Array not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final LongObjectMap<V> map = new LongObjectMap<>(items.length);
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsLong(item), valueMapper.apply(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an {@link IntIntMap} using the given mapper functions to determine the {@code int} key and {@code int} value, and
+	 * populate it with the given {@link Collection}. Keys are never boxed and, as with
+	 * {@link #toMap(Supplier, Function, Function, Collection)}, the first value mapped to a key is kept.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            the collection of items
+	 * @param <T>
+	 *            the type of object in the Collection
+	 * @param <C>
+	 *            The type of object for the Collection
+	 * @return {@link IntIntMap}
+	 */
+	public static <T, C extends Collection<T>> IntIntMap toIntIntMap(ToIntFunction<T> keyMapper, ToIntFunction<T> valueMapper,
+			C items)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final IntIntMap map = new IntIntMap(items.size());
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsInt(item), valueMapper.applyAsInt(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an {@link IntIntMap} using the given mapper functions to determine the {@code int} key and {@code int} value, and
+	 * populate it with the given Array of T objects.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            an Array of T
+	 * @param <T>
+	 *            the type of object in the Array
+	 * @return {@link IntIntMap}
+	 */
+	@SafeVarargs
+	public static <T> IntIntMap toIntIntMap(ToIntFunction<T> keyMapper, ToIntFunction<T> valueMapper, T... items)
+	{
+		verify(items, () -> new IllegalArgumentException("Array not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final IntIntMap map = new IntIntMap(items.length);
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsInt(item), valueMapper.applyAsInt(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an {@link LongLongMap} using the given mapper functions to determine the {@code long} key and {@code long} value,
+	 * and populate it with the given {@link Collection}. Keys are never boxed and, as with
+	 * {@link #toMap(Supplier, Function, Function, Collection)}, the first value mapped to a key is kept.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            the collection of items
+	 * @param <T>
+	 *            the type of object in the Collection
+	 * @param <C>
+	 *            The type of object for the Collection
+	 * @return {@link LongLongMap}
+	 */
+	public static <T, C extends Collection<T>> LongLongMap toLongLongMap(ToLongFunction<T> keyMapper,
+			ToLongFunction<T> valueMapper, C items)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final LongLongMap map = new LongLongMap(items.size());
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsLong(item), valueMapper.applyAsLong(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an {@link LongLongMap} using the given mapper functions to determine the {@code long} key and {@code long} value,
+	 * and populate it with the given Array of T objects.
+	 *
+	 * @param keyMapper
+	 *            The keyMapper indicates how the key will be resolved
+	 * @param valueMapper
+	 *            the valueMapper indicates how the value will be resolved.
+	 * @param items
+	 *            an Array of T
+	 * @param <T>
+	 *            the type of object in the Array
+	 * @return {@link LongLongMap}
+	 */
+	@SafeVarargs
+	public static <T> LongLongMap toLongLongMap(ToLongFunction<T> keyMapper, ToLongFunction<T> valueMapper, T... items)
+	{
+		verify(items, () -> new IllegalArgumentException("Array not specified."));
+		verify(keyMapper, () -> new IllegalArgumentException("Key mapper not specified."));
+		verify(valueMapper, () -> new IllegalArgumentException("Value mapper not specified."));
+
+		final LongLongMap map = new LongLongMap(items.length);
+		for (final T item : items)
+		{
+			map.putIfAbsent(keyMapper.applyAsLong(item), valueMapper.applyAsLong(item));
+		}
+		return map;
+	}
+
+	/**
+	 * Create an immutable {@link CompactMap} holding the given key and value, without an intermediate {@link Entry}.
+	 *
+	 * @param k1
+	 *            the first key
+	 * @param v1
+	 *            the value of the first key
+	 * @param <K>
+	 *            The type of object for the map key
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V> Map<K, V> mapOf(K k1, V v1)
+	{
+		return CompactMap.of(k1, v1);
+	}
+
+	/**
+	 * Create an immutable {@link CompactMap} holding the given keys and values, in that order, without an intermediate
+	 * {@link Entry} per pair. When a key is given more than once, its first value is kept.
+	 *
+	 * @param k1
+	 *            the first key
+	 * @param v1
+	 *            the value of the first key
+	 * @param k2
+	 *            the second key
+	 * @param v2
+	 *            the value of the second key
+	 * @param <K>
+	 *            The type of object for the map key
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V> Map<K, V> mapOf(K k1, V v1, K k2, V v2)
+	{
+		return CompactMap.of(k1, v1, k2, v2);
+	}
+
+	/**
+	 * Create an immutable {@link CompactMap} holding the given keys and values, in that order, without an intermediate
+	 * {@link Entry} per pair. When a key is given more than once, its first value is kept.
+	 *
+	 * @param k1
+	 *            the first key
+	 * @param v1
+	 *            the value of the first key
+	 * @param k2
+	 *            the second key
+	 * @param v2
+	 *            the value of the second key
+	 * @param k3
+	 *            the third key
+	 * @param v3
+	 *            the value of the third key
+	 * @param <K>
+	 *            The type of object for the map key
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V> Map<K, V> mapOf(K k1, V v1, K k2, V v2, K k3, V v3)
+	{
+		return CompactMap.of(k1, v1, k2, v2, k3, v3);
+	}
+
+	/**
+	 * Create an immutable {@link CompactMap} holding the given keys and values, in that order, without an intermediate
+	 * {@link Entry} per pair. When a key is given more than once, its first value is kept.
+	 *
+	 * @param k1
+	 *            the first key
+	 * @param v1
+	 *            the value of the first key
+	 * @param k2
+	 *            the second key
+	 * @param v2
+	 *            the value of the second key
+	 * @param k3
+	 *            the third key
+	 * @param v3
+	 *            the value of the third key
+	 * @param k4
+	 *            the fourth key
+	 * @param v4
+	 *            the value of the fourth key
+	 * @param <K>
+	 *            The type of object for the map key
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V> Map<K, V> mapOf(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4)
+	{
+		return CompactMap.of(k1, v1, k2, v2, k3, v3, k4, v4);
+	}
+
+	/**
+	 * Create an immutable {@link CompactMap} holding the given keys and values, in that order, without an intermediate
+	 * {@link Entry} per pair. When a key is given more than once, its first value is kept.
+	 *
+	 * @param k1
+	 *            the first key
+	 * @param v1
+	 *            the value of the first key
+	 * @param k2
+	 *            the second key
+	 * @param v2
+	 *            the value of the second key
+	 * @param k3
+	 *            the third key
+	 * @param v3
+	 *            the value of the third key
+	 * @param k4
+	 *            the fourth key
+	 * @param v4
+	 *            the value of the fourth key
+	 * @param k5
+	 *            the fifth key
+	 * @param v5
+	 *            the value of the fifth key
+	 * @param <K>
+	 *            The type of object for the map key
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V> Map<K, V> mapOf(K k1, V v1, K k2, V v2, K k3, V v3, K k4, V v4, K k5, V v5)
+	{
+		return CompactMap.of(k1, v1, k2, v2, k3, v3, k4, v4, k5, v5);
+	}
+
+	/**
+	 * Create a {@link Entry} object using the {@link AbstractMap.SimpleEntry} implementation.
+	 *
+	 * @param key
+	 *            The key
+	 * @param value
+	 *            the value
+	 *
+	 * @param <K>
+	 *            The type of object for the key.
+	 * @param <V>
+	 *            The type of object for the value.
+	 * @return {@link Entry}
+	 */
+	public static <K, V> Entry<K, V> toEntry(K key, V value)
+	{
+		return new AbstractMap.SimpleEntry<>(key, value);
+	}
+
+	/**
+	 * Convert the given object in the a valid JSON object.
+	 *
+	 * @param obj
+	 *            The object to transformed into a JSON object.
+	 * @return String
+	 */
+	public static String toJSON(Object obj)
+	{
+		verify(obj, "Cannot transform null object in JSON.");
+		final ThingsEvents.ToJSON event = new ThingsEvents.ToJSON();
+		event.begin();
+		final long start = Metrics.start();
+		final String json;
+		try
+		{
+			json = JsonMappers.writer(obj.getClass()).writeValueAsString(obj);
+		}
+		catch (final IOException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_JSON, start, e);
+			event.finish(obj, 0, true);
+			return EMPTY;
+		}
+		Metrics.success(Metrics.Operation.TO_JSON, start, json.length());
+		event.finish(obj, json.length(), false);
+		return json;
+	}
+
+	/**
+	 * Write the given object as UTF-8 encoded JSON directly to the given {@link OutputStream}, without building an intermediate
+	 * String. The stream is flushed but not closed.
+	 *
+	 * @param obj
+	 *            The object to transformed into a JSON object.
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if the object cannot be serialized or the stream cannot be written to.
+	 */
+	public static void toJSON(Object obj, OutputStream out) throws IOException
+	{
+		verify(obj, "Cannot transform null object in JSON.");
+		verify(out, "Output stream not specified.");
+		final ThingsEvents.ToJSON event = new ThingsEvents.ToJSON();
+		event.begin();
+		final long start = Metrics.start();
+		final CountingStreams.Output counting = new CountingStreams.Output(out);
+		try
+		{
+			write(obj, JsonMappers.generator(counting));
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_JSON, start, e);
+			event.finish(obj, counting.count(), true);
+			throw e;
+		}
+		Metrics.success(Metrics.Operation.TO_JSON, start, counting.count());
+		event.finish(obj, counting.count(), false);
+	}
+
+	/**
+	 * Write the given object as JSON directly to the given {@link Writer}, without building an intermediate String. The writer is
+	 * flushed but not closed.
+	 *
+	 * @param obj
+	 *            The object to transformed into a JSON object.
+	 * @param writer
+	 *            the writer to write to
+	 * @throws IOException
+	 *             if the object cannot be serialized or the writer cannot be written to.
+	 */
+	public static void toJSON(Object obj, Writer writer) throws IOException
+	{
+		verify(obj, "Cannot transform null object in JSON.");
+		verify(writer, "Writer not specified.");
+		final ThingsEvents.ToJSON event = new ThingsEvents.ToJSON();
+		event.begin();
+		final long start = Metrics.start();
+		final CountingStreams.Characters counting = new CountingStreams.Characters(writer);
+		try
+		{
+			write(obj, JsonMappers.generator(counting));
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_JSON, start, e);
+			event.finish(obj, counting.count(), true);
+			throw e;
+		}
+		Metrics.success(Metrics.Operation.TO_JSON, start, counting.count());
+		event.finish(obj, counting.count(), false);
+	}
+
+	/**
+	 * Write the given object as UTF-8 encoded JSON into the given {@link ByteBuffer}, heap or direct, starting at its current
+	 * position. On success the position is advanced past the JSON; on failure the position is left unchanged.
+	 *
+	 * @param obj
+	 *            The object to transformed into a JSON object.
+	 * @param buffer
+	 *            the buffer to write into
+	 * @return the number of bytes written
+	 * @throws IOException
+	 *             if the object cannot be serialized.
+	 * @throws java.nio.BufferOverflowException
+	 *             if the JSON does not fit in the remaining space of the buffer.
+	 */
+	public static int toJSON(Object obj, ByteBuffer buffer) throws IOException
+	{
+		verify(buffer, "Buffer not specified.");
+		verify(obj, "Cannot transform null object in JSON.");
+		final ThingsEvents.ToJSON event = new ThingsEvents.ToJSON();
+		event.begin();
+		final long start = Metrics.start();
+		final int position = buffer.position();
+		try
+		{
+			write(obj, JsonMappers.generator(ByteBufferStreams.output(buffer)));
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			buffer.position(position);
+			Metrics.failure(Metrics.Operation.TO_JSON, start, e);
+			event.finish(obj, 0, true);
+			throw e;
+		}
+		final int written = buffer.position() - position;
+		Metrics.success(Metrics.Operation.TO_JSON, start, written);
+		event.finish(obj, written, false);
+		return written;
+	}
+
+	/**
+	 * Write the given object with the shared mapper through the given generator, then close the generator, which flushes but does
+	 * not close its target.
+	 */
+	private static void write(Object obj, JsonGenerator generator) throws IOException
+	{
+		try (JsonGenerator closing = generator)
+		{
+			JsonMappers.writer(obj.getClass()).writeValue(closing, obj);
+		}
+	}
+
+	/**
+	 * Write the given collection as a UTF-8 encoded JSON array directly to the given {@link OutputStream}; the stream is flushed
+	 * but not closed. The output is the same as {@link #toJSON(Object, OutputStream)} gives, but large collections are cut into
+	 * chunks that are encoded in parallel on the common fork-join pool and written in order, so exports scale with the number of
+	 * cores. Only a bounded number of chunks are held in memory at once, never the whole document. The output is compact even if
+	 * the shared mapper indents; a collection that is not a {@code java.util} collection is written by a single thread, since
+	 * its class may be serialized differently.
+	 *
+	 * @param items
+	 *            the collection to write; may be empty
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if an item cannot be serialized or the stream cannot be written to; the output is then incomplete.
+	 */
+	public static void toJSON(Collection<?> items, OutputStream out) throws IOException
+	{
+		verify(items, "Cannot transform null collection in JSON.");
+		verify(out, "Output stream not specified.");
+		export(items, out, false);
+	}
+
+	/**
+	 * Write the given collection as UTF-8 encoded newline-delimited JSON directly to the given {@link OutputStream}: each item on
+	 * a line of its own, readable back with {@link #toMaps(Supplier, InputStream)}. Items are encoded in parallel as with
+	 * {@link #toJSON(Collection, OutputStream)}. Every item is written compactly, even if the shared mapper indents. The stream
+	 * is flushed but not closed.
+	 *
+	 * @param items
+	 *            the collection to write; may be empty
+	 * @param out
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if an item cannot be serialized or the stream cannot be written to; the output is then incomplete.
+	 */
+	public static void toNDJSON(Collection<?> items, OutputStream out) throws IOException
+	{
+		verify(items, "Cannot transform null collection in JSON.");
+		verify(out, "Output stream not specified.");
+		export(items, out, true);
+	}
+
+	private static void export(Collection<?> items, OutputStream out, boolean ndjson) throws IOException
+	{
+		final ThingsEvents.Export event = new ThingsEvents.Export();
+		event.begin();
+		final long start = Metrics.start();
+		final long written;
+		try
+		{
+			written = JsonExport.write(items, out, ndjson);
+		}
+		catch (final IOException | RuntimeException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_JSON, start, e);
+			event.finish(ndjson, items.size(), 0L, true);
+			throw e;
+		}
+		Metrics.success(Metrics.Operation.TO_JSON, start, written);
+		event.finish(ndjson, items.size(), written, false);
+	}
+
+	/**
+	 * Encode the given object in the compact binary format described in {@link #fromBinary(ByteBuffer)}, the binary counterpart
+	 * of {@link #toJSON(Object)}. Maps, collections and scalars are encoded directly; other objects are converted the way they
+	 * would be serialized to JSON.
+	 *
+	 * @param obj
+	 *            The object to encode.
+	 * @return the encoded bytes, or an empty array if the object cannot be converted
+	 */
+	public static byte[] toBinary(Object obj)
+	{
+		verify(obj, "Cannot transform null object in binary.");
+		final long start = Metrics.start();
+		final byte[] bytes;
+		try
+		{
+			bytes = Binary.encode(obj);
+		}
+		catch (final IllegalArgumentException e)
+		{
+			Metrics.failure(Metrics.Operation.TO_BINARY, start, e);
+			return new byte[0];
+		}
+		Metrics.success(Metrics.Operation.TO_BINARY, start, bytes.length);
+		return bytes;
+	}
+
+	/**
+	 * Create a {@link HashMap} from the given binary object produced by {@link #toBinary(Object)}.
+	 *
+	 * @param binary
+	 *            the encoded bytes
+	 * @return {@link Map}
+	 */
+	public static Map<String, String> fromBinary(byte[] binary)
+	{
+		return fromBinary(HashMap::new, binary);
+	}
+
+	/**
+	 * Create an implementation of the {@link Map} interface using the given {@link Supplier} object and populate the map with the
+	 * given binary object produced by {@link #toBinary(Object)}.
+	 *
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used
+	 * @param binary
+	 *            the encoded bytes
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V, M extends Map<K, V>> Map<K, V> fromBinary(Supplier<M> mapSupplier, byte[] binary)
+	{
+		verify(binary, "Cannot transform null bytes in Map.");
+		return fromBinary(mapSupplier, ByteBuffer.wrap(binary));
+	}
+
+	/**
+	 * Create a {@link HashMap} from the given binary object produced by {@link #toBinary(Object)}. The position of the buffer is
+	 * not changed.
+	 * <p>
+	 * The decoded map holds the same keys and values as {@link #toMap(String)} gives for the JSON of the same object, so services
+	 * can switch between the two encodings without touching the code reading the maps. The format is documented in
+	 * {@code Binary}: a length-prefixed, tagged encoding in which each distinct key is written once and referenced by index
+	 * afterwards.
+	 *
+	 * @param binary
+	 *            the encoded buffer
+	 * @return {@link Map}
+	 */
+	public static Map<String, String> fromBinary(ByteBuffer binary)
+	{
+		return fromBinary(HashMap::new, binary);
+	}
+
+	/**
+	 * Create an implementation of the {@link Map} interface using the given {@link Supplier} object and populate the map with the
+	 * given binary object produced by {@link #toBinary(Object)}. The position of the buffer is not changed. An
+	 * {@link TextMap}, such as {@link OffHeapStringMap}, receives the JSON text of values that are not strings, as with
+	 * {@link #toMap(Supplier, String)}.
+	 *
+	 * @param mapSupplier
+	 *            The implementation of the {@link Map} interface that will be used
+	 * @param binary
+	 *            the encoded buffer
+	 * @param <K>
+	 *            The type of object for the map key.
+	 * @param <V>
+	 *            The type of object for the map value
+	 * @return {@link Map}
+	 */
+	public static <K, V, M extends Map<K, V>> Map<K, V> fromBinary(Supplier<M> mapSupplier, ByteBuffer binary)
+	{
+		verify(binary, "Cannot transform null buffer in Map.");
+		final M map = verify(verify(mapSupplier).get(), "Supplier is null");
+		final long start = Metrics.start();
+		try
+		{
+			Binary.decode(binary, map);
+		}
+		catch (final IOException e)
+		{
+			Metrics.failure(Metrics.Operation.FROM_BINARY, start, e);
+			return new HashMap<>();
+		}
+		Metrics.success(Metrics.Operation.FROM_BINARY, start, binary.remaining());
+		return map;
+	}
+
+	/**
+	 * Pluck value out of the given {@link Collection} based on the given {@link Function} object and return them as a Collection
+	 *
+	 * @param items
+	 *            the collection of itmes
+	 * @param function
+	 *            the functional interface that determine what value will be plucked.
+	 * @return {@link Collection}
+	 */
+	public static <T, R> Collection<R> pluck(Collection<T> items, Function<T, R> function)
+	{
+		return pluck(items, function, SEQUENTIAL);
+	}
+
+	/**
+	 * Pluck value out of the given {@link Collection} based on the given {@link Function} object and return them as a Collection
+	 * in the iteration order of the items. Collections holding at least {@code parallelThreshold} items are split across the
+	 * common fork-join pool and the partial lists are concatenated in encounter order.
+	 *
+	 * @param items
+	 *            the collection of itmes
+	 * @param function
+	 *            the functional interface that determine what value will be plucked.
+	 * @param parallelThreshold
+	 *            the minimum number of items for which the work is done in parallel
+	 * @return {@link Collection}
+	 */
+	public static <T, R> Collection<R> pluck(Collection<T> items, Function<T, R> function, int parallelThreshold)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified"));
+		verify(function, () -> new IllegalArgumentException("function lambda not specified"));
+
+		final ThingsEvents.Conversion event = new ThingsEvents.Conversion();
+		event.begin();
+		final Stream<T> stream = stream(items, parallelThreshold);
+		final List<R> values = stream.collect(Collectors.mapping(function, Collectors.toList()));
+		event.finish("pluck", items.size(), values, stream.isParallel());
+		return values;
+	}
+
+	/**
+	 * Pluck {@code int} values out of the given {@link Collection} based on the given {@link ToIntFunction} object and return
+	 * them as an array in the iteration order of the items. The array is sized once from the collection and no value is boxed.
+	 *
+	 * @param items
+	 *            the collection of itmes
+	 * @param function
+	 *            the functional interface that determine what value will be plucked.
+	 * @return int[]
+	 */
+	public static <T> int[] pluckInt(Collection<T> items, ToIntFunction<T> function)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified"));
+		verify(function, () -> new IllegalArgumentException("function lambda not specified"));
+
+		final ThingsEvents.Conversion event = new ThingsEvents.Conversion();
+		event.begin();
+		final int[] values = new int[items.size()];
+		int i = 0;
+		for (final T item : items)
+		{
+			values[i++] = function.applyAsInt(item);
+		}
+		event.finish("pluckInt", values.length, values, false);
+		return values;
+	}
+
+	/**
+	 * Pluck {@code long} values out of the given {@link Collection} based on the given {@link ToLongFunction} object and return
+	 * them as an array in the iteration order of the items. The array is sized once from the collection and no value is boxed.
+	 *
+	 * @param items
+	 *            the collection of itmes
+	 * @param function
+	 *            the functional interface that determine what value will be plucked.
+	 * @return long[]
+	 */
+	public static <T> long[] pluckLong(Collection<T> items, ToLongFunction<T> function)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified"));
+		verify(function, () -> new IllegalArgumentException("function lambda not specified"));
+
+		final ThingsEvents.Conversion event = new ThingsEvents.Conversion();
+		event.begin();
+		final long[] values = new long[items.size()];
+		int i = 0;
+		for (final T item : items)
+		{
+			values[i++] = function.applyAsLong(item);
+		}
+		event.finish("pluckLong", values.length, values, false);
+		return values;
+	}
+
+	/**
+	 * Pluck {@code double} values out of the given {@link Collection} based on the given {@link ToDoubleFunction} object and
+	 * return them as an array in the iteration order of the items. The array is sized once from the collection and no value is
+	 * boxed.
+	 *
+	 * @param items
+	 *            the collection of itmes
+	 * @param function
+	 *            the functional interface that determine what value will be plucked.
+	 * @return double[]
+	 */
+	public static <T> double[] pluckDouble(Collection<T> items, ToDoubleFunction<T> function)
+	{
+		verify(items, () -> new IllegalArgumentException("Collection not specified"));
+		verify(function, () -> new IllegalArgumentException("function lambda not specified"));
+
+		final ThingsEvents.Conversion event = new ThingsEvents.Conversion();
+		event.begin();
+		final double[] values = new double[items.size()];
+		int i = 0;
+		for (final T item : items)
+		{
+			values[i++] = function.applyAsDouble(item);
+		}
+		event.finish("pluckDouble", values.length, values, false);
+		return values;
+	}
+
+	/**
+	 * Build upon the given object.
+	 *
+	 * @param t
+	 *            the object to build
+	 * @param builder
 	 *            the function interface used to built up the object
 	 * @param <T>
 	 *            the type of object
@@ -691,6 +2167,125 @@ public final class Things
 		}
 	}
 
+	/**
+	 * Run the given {@link Callable} asynchronously, on its own virtual thread when the JVM supports them and on a shared pool of
+	 * daemon threads otherwise. Unlike {@link #uncheck(Callable)}, checked exceptions are not wrapped: the returned future
+	 * completes exceptionally with exactly what the callable threw. Cancelling the future interrupts the callable.
+	 *
+	 * @param callable
+	 *            the task to run
+	 * @param <T>
+	 *            the type of the result
+	 * @return {@link CompletableFuture}
+	 */
+	public static <T> CompletableFuture<T> async(Callable<T> callable)
+	{
+		return async(callable, Tasks.executor());
+	}
+
+	/**
+	 * Run the given {@link Callable} asynchronously on the given {@link Executor}. The returned future completes exceptionally
+	 * with exactly what the callable threw. Cancelling the future interrupts the callable.
+	 *
+	 * @param callable
+	 *            the task to run
+	 * @param executor
+	 *            the executor to run the task on
+	 * @param <T>
+	 *            the type of the result
+	 * @return {@link CompletableFuture}
+	 */
+	public static <T> CompletableFuture<T> async(Callable<T> callable, Executor executor)
+	{
+		verify(callable, () -> new IllegalArgumentException("Callable not specified."));
+		verify(executor, () -> new IllegalArgumentException("Executor not specified."));
+		return Tasks.submit(callable, executor);
+	}
+
+	/**
+	 * Run the given {@link Voidable} asynchronously, on its own virtual thread when the JVM supports them and on a shared pool of
+	 * daemon threads otherwise. The returned future completes exceptionally with exactly what the voidable threw.
+	 *
+	 * @param voidable
+	 *            the task to run
+	 * @return {@link CompletableFuture}
+	 */
+	public static CompletableFuture<Void> async(Voidable voidable)
+	{
+		return async(voidable, Tasks.executor());
+	}
+
+	/**
+	 * Run the given {@link Voidable} asynchronously on the given {@link Executor}. The returned future completes exceptionally
+	 * with exactly what the voidable threw.
+	 *
+	 * @param voidable
+	 *            the task to run
+	 * @param executor
+	 *            the executor to run the task on
+	 * @return {@link CompletableFuture}
+	 */
+	public static CompletableFuture<Void> async(Voidable voidable, Executor executor)
+	{
+		verify(voidable, () -> new IllegalArgumentException("Voidable not specified."));
+		return async(() -> {
+			voidable.call();
+			return null;
+		}, executor);
+	}
+
+	/**
+	 * Run the given tasks asynchronously, at most {@code maxConcurrency} at a time, each on its own virtual thread when the JVM
+	 * supports them, and wait until they all complete or the timeout expires. Tasks still running when the timeout expires are
+	 * interrupted, tasks not yet started are never run, and the futures of both are cancelled.
+	 *
+	 * @param tasks
+	 *            the tasks to run
+	 * @param maxConcurrency
+	 *            the maximum number of tasks running at the same time
+	 * @param timeout
+	 *            the maximum time to wait for the tasks
+	 * @param <T>
+	 *            the type of the results
+	 * @return one completed future per task, in the iteration order of the tasks
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting; every task is cancelled.
+	 */
+	public static <T> List<CompletableFuture<T>> invokeAll(Collection<? extends Callable<T>> tasks, int maxConcurrency,
+			Duration timeout) throws InterruptedException
+	{
+		return invokeAll(tasks, maxConcurrency, timeout, Tasks.executor());
+	}
+
+	/**
+	 * Run the given tasks on the given {@link Executor}, at most {@code maxConcurrency} at a time, and wait until they all
+	 * complete or the timeout expires. Tasks still running when the timeout expires are interrupted, tasks not yet started are
+	 * never run, and the futures of both are cancelled.
+	 *
+	 * @param tasks
+	 *            the tasks to run
+	 * @param maxConcurrency
+	 *            the maximum number of tasks running at the same time
+	 * @param timeout
+	 *            the maximum time to wait for the tasks
+	 * @param executor
+	 *            the executor to run the tasks on
+	 * @param <T>
+	 *            the type of the results
+	 * @return one completed future per task, in the iteration order of the tasks
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting; every task is cancelled.
+	 */
+	public static <T> List<CompletableFuture<T>> invokeAll(Collection<? extends Callable<T>> tasks, int maxConcurrency,
+			Duration timeout, Executor executor) throws InterruptedException
+	{
+		verify(tasks, () -> new IllegalArgumentException("Tasks not specified."));
+		verify(maxConcurrency, () -> new IllegalArgumentException("Concurrency must be positive."), c -> c > 0);
+		verify(timeout, () -> new IllegalArgumentException("Timeout not specified."));
+		verify(executor, () -> new IllegalArgumentException("Executor not specified."));
+		return Tasks.invokeAll(tasks, maxConcurrency, timeout, executor);
+	}
+
 	/**
 	 * Close the gives list of objects
 	 *
@@ -700,7 +2295,63 @@ public final class Things
 	 */
 	public static void close(AutoCloseable... closeables) throws Exception
 	{
-		Stream.of(closeables).filter(Objects::nonNull).forEach(a -> uncheck(a::close));
+		final ThingsEvents.Close event = new ThingsEvents.Close();
+		event.begin();
+		boolean failed = true;
+		try
+		{
+			Stream.of(closeables).filter(Objects::nonNull).forEach(a -> uncheck(a::close));
+			failed = false;
+		}
+		finally
+		{
+			event.finish((closeables == null) ? 0 : closeables.length, failed);
+		}
+	}
+
+	/**
+	 * Close the given objects concurrently, each on its own virtual thread when the JVM supports them, and wait until they are
+	 * all closed or the timeout expires. Unlike {@link #close(AutoCloseable...)}, a failure does not stop the remaining objects
+	 * from being closed: every object is attempted, and all the failures are reported together once the others are done. The
+	 * timeout bounds the whole call: objects still closing when it expires are interrupted, and objects whose close has not
+	 * started by then are not closed at all. Both are reported as a {@link java.util.concurrent.TimeoutException}.
+	 *
+	 * @param timeout
+	 *            the maximum time to wait for the objects to close
+	 * @param closeables
+	 *            the objects to close; {@code null} elements are skipped
+	 * @return the time each object took to close, in the order the objects were given
+	 * @throws CloseException
+	 *             if an object failed to close, or had not finished closing when the timeout expired; each failure is attached
+	 *             as a suppressed exception.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting; the objects still closing are interrupted.
+	 */
+	public static List<Duration> close(Duration timeout, AutoCloseable... closeables) throws CloseException, InterruptedException
+	{
+		verify(timeout, () -> new IllegalArgumentException("Timeout not specified."));
+		verify(closeables, () -> new IllegalArgumentException("Nothing to close."));
+		final ThingsEvents.Close event = new ThingsEvents.Close();
+		event.begin();
+		boolean failed = true;
+		try
+		{
+			final List<Duration> durations = Tasks.close(timeout, closeables);
+			failed = false;
+			return durations;
+		}
+		finally
+		{
+			event.finish(closeables.length, failed);
+		}
+	}
+
+	/**
+	 * Stream the given collection, in parallel once it holds at least {@code parallelThreshold} items.
+	 */
+	private static <T> Stream<T> stream(Collection<T> items, int parallelThreshold)
+	{
+		return (items.size() >= parallelThreshold) ? items.parallelStream() : items.stream();
 	}
 
 }
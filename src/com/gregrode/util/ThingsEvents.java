@@ -0,0 +1,264 @@
+package com.gregrode.util;
+
+import java.util.Map;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * The <code>ThingsEvents</code> class holds the JDK Flight Recorder events emitted by {@link Things}, so time spent in its
+ * conversions is attributed to them rather than to anonymous Jackson and stream frames. Every event has a duration threshold, so
+ * only slow calls are recorded; the thresholds can be changed in the settings (<code>.jfc</code>) of a recording.
+ * <p>
+ * While no recording is running, an event is never committed and the cost of an instrumented call is a few checks of the
+ * disabled event.
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+final class ThingsEvents
+{
+
+	private static final String CATEGORY = "utilThings";
+
+	private ThingsEvents()
+	{
+	}
+
+	/**
+	 * Serialization of an object to JSON.
+	 */
+	@Name("com.gregrode.util.ToJSON")
+	@Label("To JSON")
+	@Description("Serialization of an object to JSON by Things.toJSON")
+	@Category(CATEGORY)
+	@Threshold("1 ms")
+	@StackTrace(true)
+	static final class ToJSON extends Event
+	{
+		@Label("Input Class")
+		Class<?> inputClass;
+
+		@Label("Output Size")
+		@Description("Number of characters, or bytes for a stream or buffer, produced")
+		long outputSize;
+
+		@Label("Failed")
+		boolean failed;
+
+		/**
+		 * End the event and commit it if it is enabled and slow enough.
+		 *
+		 * @param input
+		 *            the object serialized
+		 * @param size
+		 *            the number of characters, or bytes for a stream or buffer, produced
+		 * @param failure
+		 *            whether the serialization failed
+		 */
+		void finish(Object input, long size, boolean failure)
+		{
+			end();
+			if (shouldCommit())
+			{
+				inputClass = input.getClass();
+				outputSize = size;
+				failed = failure;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Parsing of a JSON object into a map.
+	 */
+	@Name("com.gregrode.util.ToMap")
+	@Label("JSON To Map")
+	@Description("Parsing of a JSON object into a Map by Things.toMap")
+	@Category(CATEGORY)
+	@Threshold("1 ms")
+	@StackTrace(true)
+	static final class ToMap extends Event
+	{
+		@Label("Input Size")
+		@Description("Number of characters or bytes parsed")
+		@DataAmount
+		long inputSize;
+
+		@Label("Entries")
+		int entries;
+
+		@Label("Map Class")
+		Class<?> mapClass;
+
+		@Label("Failed")
+		boolean failed;
+
+		/**
+		 * End the event and commit it if it is enabled and slow enough.
+		 *
+		 * @param size
+		 *            the number of characters or bytes parsed
+		 * @param map
+		 *            the map populated
+		 * @param failure
+		 *            whether the parsing failed
+		 */
+		void finish(long size, Map<?, ?> map, boolean failure)
+		{
+			end();
+			if (shouldCommit())
+			{
+				inputSize = size;
+				entries = map.size();
+				mapClass = map.getClass();
+				failed = failure;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Conversion of a collection by {@code toMap} or one of the {@code pluck} methods.
+	 */
+	@Name("com.gregrode.util.Conversion")
+	@Label("Collection Conversion")
+	@Description("Conversion of a collection by Things.toMap or Things.pluck")
+	@Category(CATEGORY)
+	@Threshold("10 ms")
+	@StackTrace(true)
+	static final class Conversion extends Event
+	{
+		@Label("Operation")
+		String operation;
+
+		@Label("Elements")
+		int elements;
+
+		@Label("Target Class")
+		@Description("Class of the map or collection produced")
+		Class<?> targetClass;
+
+		@Label("Parallel")
+		boolean parallel;
+
+		/**
+		 * End the event and commit it if it is enabled and slow enough.
+		 *
+		 * @param name
+		 *            the name of the operation
+		 * @param count
+		 *            the number of elements converted
+		 * @param target
+		 *            the map, collection or array produced
+		 * @param split
+		 *            whether the work was split across the fork-join pool
+		 */
+		void finish(String name, int count, Object target, boolean split)
+		{
+			end();
+			if (shouldCommit())
+			{
+				operation = name;
+				elements = count;
+				targetClass = target.getClass();
+				parallel = split;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Export of a collection to a stream as a JSON array or as newline-delimited JSON.
+	 */
+	@Name("com.gregrode.util.Export")
+	@Label("JSON Export")
+	@Description("Export of a collection by Things.toJSON or Things.toNDJSON")
+	@Category(CATEGORY)
+	@Threshold("10 ms")
+	@StackTrace(true)
+	static final class Export extends Event
+	{
+		@Label("Format")
+		String format;
+
+		@Label("Elements")
+		int elements;
+
+		@Label("Output Size")
+		@Description("Number of bytes written")
+		@DataAmount
+		long outputSize;
+
+		@Label("Failed")
+		boolean failed;
+
+		/**
+		 * End the event and commit it if it is enabled and slow enough.
+		 *
+		 * @param ndjson
+		 *            whether the collection was written as newline-delimited JSON
+		 * @param count
+		 *            the number of elements
+		 * @param size
+		 *            the number of bytes written
+		 * @param failure
+		 *            whether the export failed
+		 */
+		void finish(boolean ndjson, int count, long size, boolean failure)
+		{
+			end();
+			if (shouldCommit())
+			{
+				format = ndjson ? "NDJSON" : "JSON";
+				elements = count;
+				outputSize = size;
+				failed = failure;
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Closing of resources by {@code close}.
+	 */
+	@Name("com.gregrode.util.Close")
+	@Label("Close")
+	@Description("Closing of resources by Things.close")
+	@Category(CATEGORY)
+	@Threshold("1 ms")
+	@StackTrace(true)
+	static final class Close extends Event
+	{
+		@Label("Resources")
+		int resources;
+
+		@Label("Failed")
+		boolean failed;
+
+		/**
+		 * End the event and commit it if it is enabled and slow enough.
+		 *
+		 * @param count
+		 *            the number of resources
+		 * @param failure
+		 *            whether closing a resource failed
+		 */
+		void finish(int count, boolean failure)
+		{
+			end();
+			if (shouldCommit())
+			{
+				resources = count;
+				failed = failure;
+				commit();
+			}
+		}
+	}
+}
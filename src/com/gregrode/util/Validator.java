@@ -0,0 +1,316 @@
+package com.gregrode.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The <code>Validator</code> class checks an object against a fixed list of rules built once with a {@link Builder}. Each rule
+ * reads a field of the object and rejects it the same way {@link Things#verify(Object, Predicate)} does: when the field is
+ * {@code null}, {@code false}, an empty {@link String}, {@link Collection} or {@link java.util.Map}, or fails the rule's
+ * predicate. Arrays are not checked for emptiness; give such a field a predicate, e.g. {@code tags -> tags.length > 0}.
+ * <p>
+ * Violations are returned rather than thrown, so a whole collection can be checked in one pass; {@link #verify(Object)} is
+ * available when the first violation should be thrown instead. A validator is immutable and thread-safe as long as its rules are.
+ *
+ * <pre>
+ * Validator&lt;Person&gt; validator = Validator.&lt;Person&gt; builder()
+ * 		.require(Person::getName, "The person must have a name")
+ * 		.require(Person::getAge, age -&gt; age &gt; 18, "The person must be an adult")
+ * 		.build();
+ * List&lt;Validator.Violation&lt;Person&gt;&gt; violations = validator.validateAll(people, false);
+ * </pre>
+ *
+ * @param <T>
+ *            the type of object to validate
+ *
+ * @author Greg Dennis<br/>
+ *         &copy; Gregroy Dennis 2016
+ */
+public final class Validator<T>
+{
+
+	private static final String MISSING = "Object was not specified.";
+
+	private final Rule<T>[] rules;
+
+	private Validator(Rule<T>[] rules)
+	{
+		this.rules = rules;
+	}
+
+	/**
+	 * Create a builder for a new {@link Validator}.
+	 *
+	 * @param <T>
+	 *            the type of object to validate
+	 * @return {@link Builder}
+	 */
+	public static <T> Builder<T> builder()
+	{
+		return new Builder<>();
+	}
+
+	/**
+	 * Check the given object and throw an {@link IllegalArgumentException} carrying the message of the first rule it breaks.
+	 *
+	 * @param t
+	 *            the object to check
+	 * @return T
+	 */
+	public T verify(T t)
+	{
+		final Rule<T> rule = firstBroken(Things.verify(t, MISSING));
+		if (rule != null)
+		{
+			throw new IllegalArgumentException(rule.message);
+		}
+		return t;
+	}
+
+	/**
+	 * Check the given object against every rule.
+	 *
+	 * @param t
+	 *            the object to check
+	 * @return the messages of the rules the object breaks, in the order the rules were added
+	 */
+	public List<String> validate(T t)
+	{
+		Things.verify(t, MISSING);
+		List<String> messages = Collections.emptyList();
+		for (final Rule<T> rule : rules)
+		{
+			if (!rule.test(t))
+			{
+				if (messages.isEmpty())
+				{
+					messages = new ArrayList<>();
+				}
+				messages.add(rule.message);
+			}
+		}
+		return messages;
+	}
+
+	/**
+	 * Check every item of the given collection in a single pass.
+	 *
+	 * @param items
+	 *            the items to check
+	 * @param failFast
+	 *            {@code true} to stop at the first broken rule of the first invalid item
+	 * @return the violations in the iteration order of the items; at most one when failing fast
+	 */
+	public List<Violation<T>> validateAll(Collection<? extends T> items, boolean failFast)
+	{
+		return validateAll(items, failFast, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Check every item of the given collection in a single pass. Collections holding at least {@code parallelThreshold} items are
+	 * split across the common fork-join pool; the violations are still reported in the iteration order of the items, and failing
+	 * fast still reports the first invalid item. A {@code null} item is reported as a single violation rather than checked.
+	 *
+	 * @param items
+	 *            the items to check
+	 * @param failFast
+	 *            {@code true} to stop at the first broken rule of the first invalid item
+	 * @param parallelThreshold
+	 *            the minimum number of items for which the work is done in parallel
+	 * @return the violations in the iteration order of the items; at most one when failing fast
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Violation<T>> validateAll(Collection<? extends T> items, boolean failFast, int parallelThreshold)
+	{
+		Things.verify(items, "Collection not specified.");
+		final Object[] array = items.toArray();
+		IntStream indexes = IntStream.range(0, array.length);
+		if (array.length >= parallelThreshold)
+		{
+			indexes = indexes.parallel();
+		}
+		if (failFast)
+		{
+			return indexes.mapToObj(i -> {
+				if (array[i] == null)
+				{
+					return new Violation<T>(i, null, MISSING);
+				}
+				final Rule<T> rule = firstBroken((T) array[i]);
+				return (rule == null) ? null : new Violation<>(i, (T) array[i], rule.message);
+			}).filter(Objects::nonNull).limit(1).collect(Collectors.toList());
+		}
+		return indexes.boxed().flatMap(i -> {
+			final T item = (T) array[i];
+			final List<String> messages = (item == null) ? Collections.singletonList(MISSING) : validate(item);
+			return messages.stream().map(message -> new Violation<>(i, item, message));
+		}).collect(Collectors.toList());
+	}
+
+	private Rule<T> firstBroken(T t)
+	{
+		for (final Rule<T> rule : rules)
+		{
+			if (!rule.test(t))
+			{
+				return rule;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Builds a {@link Validator} from a list of rules, checked in the order they are added.
+	 *
+	 * @param <T>
+	 *            the type of object to validate
+	 */
+	public static final class Builder<T>
+	{
+		private final List<Rule<T>> rules = new ArrayList<>();
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Require the field read by the given function to be present and not empty.
+		 *
+		 * @param field
+		 *            the function reading the field
+		 * @param message
+		 *            the message reported when the rule is broken
+		 * @return this builder
+		 */
+		public Builder<T> require(Function<? super T, ?> field, String message)
+		{
+			return require(field, f -> true, message);
+		}
+
+		/**
+		 * Require the field read by the given function to be present, not empty and to pass the given predicate.
+		 *
+		 * @param field
+		 *            the function reading the field
+		 * @param predicate
+		 *            the predicate the field must pass
+		 * @param message
+		 *            the message reported when the rule is broken
+		 * @param <F>
+		 *            the type of the field
+		 * @return this builder
+		 */
+		public <F> Builder<T> require(Function<? super T, ? extends F> field, Predicate<? super F> predicate, String message)
+		{
+			Things.verify(field, "Field not specified.");
+			Things.verify(predicate, "Predicate not specified.");
+			Things.verify(message, "Message not specified.");
+			rules.add(new Rule<>(field, predicate, message));
+			return this;
+		}
+
+		/**
+		 * Require the whole object to pass the given predicate.
+		 *
+		 * @param predicate
+		 *            the predicate the object must pass
+		 * @param message
+		 *            the message reported when the rule is broken
+		 * @return this builder
+		 */
+		public Builder<T> check(Predicate<? super T> predicate, String message)
+		{
+			return require(Function.identity(), predicate, message);
+		}
+
+		/**
+		 * @return a {@link Validator} checking the rules added so far
+		 */
+		@SuppressWarnings("unchecked")
+		public Validator<T> build()
+		{
+			return new Validator<>((Rule<T>[]) rules.toArray(new Rule<?>[rules.size()]));
+		}
+	}
+
+	/**
+	 * A broken rule, along with the item that broke it and the item's position in the validated collection.
+	 *
+	 * @param <T>
+	 *            the type of object validated
+	 */
+	public static final class Violation<T>
+	{
+		private final int index;
+		private final T item;
+		private final String message;
+
+		Violation(int index, T item, String message)
+		{
+			this.index = index;
+			this.item = item;
+			this.message = message;
+		}
+
+		/**
+		 * @return the position of the item in the validated collection
+		 */
+		public int getIndex()
+		{
+			return index;
+		}
+
+		/**
+		 * @return the item that broke the rule
+		 */
+		public T getItem()
+		{
+			return item;
+		}
+
+		/**
+		 * @return the message of the broken rule
+		 */
+		public String getMessage()
+		{
+			return message;
+		}
+
+		@Override
+		public String toString()
+		{
+			return "[" + index + "] " + message;
+		}
+	}
+
+	/**
+	 * One rule. Every rule is an instance of this single class, so the loop over the rules calls a single implementation.
+	 */
+	private static final class Rule<T>
+	{
+		private final Function<? super T, ?> field;
+		private final Predicate<Object> predicate;
+		private final String message;
+
+		@SuppressWarnings("unchecked")
+		<F> Rule(Function<? super T, ? extends F> field, Predicate<? super F> predicate, String message)
+		{
+			this.field = field;
+			this.predicate = (Predicate<Object>) predicate;
+			this.message = message;
+		}
+
+		boolean test(T t)
+		{
+			final Object value = field.apply(t);
+			return (value != null) && !Things.isBlank(value) && predicate.test(value);
+		}
+	}
+}
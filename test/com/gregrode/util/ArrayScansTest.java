@@ -0,0 +1,139 @@
+package com.gregrode.util;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ArrayScansTest
+{
+	private final Random random = new Random(42);
+
+	@Test
+	public void intTest()
+	{
+		for (int n = 0; n < 70; n++)
+		{
+			final int[] array = new int[n];
+			for (int i = 0; i < n; i++)
+			{
+				array[i] = (random.nextInt(6) == 0) ? (random.nextBoolean() ? Integer.MIN_VALUE : random.nextInt()) : 0;
+			}
+			for (int offset = 0; offset <= n; offset += 3)
+			{
+				final int length = n - offset;
+				int first = -1;
+				int count = 0;
+				for (int i = offset; i < n; i++)
+				{
+					if (array[i] != 0)
+					{
+						first = (first < 0) ? i : first;
+						count++;
+					}
+				}
+				Assert.assertEquals(first, ArrayScans.firstNonZero(array, offset, length));
+				Assert.assertEquals(count, ArrayScans.countNonZero(array, offset, length));
+				Assert.assertEquals(first < 0, ArrayScans.allZero(array, offset, length));
+			}
+		}
+	}
+
+	@Test
+	public void longTest()
+	{
+		for (int n = 0; n < 70; n++)
+		{
+			final long[] array = new long[n];
+			for (int i = 0; i < n; i++)
+			{
+				array[i] = (random.nextInt(6) == 0) ? (random.nextBoolean() ? Long.MIN_VALUE : random.nextLong()) : 0;
+			}
+			for (int offset = 0; offset <= n; offset += 3)
+			{
+				final int length = n - offset;
+				int first = -1;
+				int count = 0;
+				for (int i = offset; i < n; i++)
+				{
+					if (array[i] != 0)
+					{
+						first = (first < 0) ? i : first;
+						count++;
+					}
+				}
+				Assert.assertEquals(first, ArrayScans.firstNonZero(array, offset, length));
+				Assert.assertEquals(count, ArrayScans.countNonZero(array, offset, length));
+				Assert.assertEquals(first < 0, ArrayScans.allZero(array, offset, length));
+			}
+		}
+	}
+
+	@Test
+	public void doubleTest()
+	{
+		final double[] values = { 0.0, -0.0, 1.5, -2.0, Double.NaN, Double.MIN_VALUE };
+		for (int n = 0; n < 70; n++)
+		{
+			final double[] array = new double[n];
+			for (int i = 0; i < n; i++)
+			{
+				array[i] = (random.nextInt(4) == 0) ? values[random.nextInt(values.length)] : -0.0;
+			}
+			for (int offset = 0; offset <= n; offset += 3)
+			{
+				final int length = n - offset;
+				int first = -1;
+				int count = 0;
+				for (int i = offset; i < n; i++)
+				{
+					if (array[i] != 0.0 || Double.isNaN(array[i]))
+					{
+						first = (first < 0) ? i : first;
+						count++;
+					}
+				}
+				Assert.assertEquals(first, ArrayScans.firstNonZero(array, offset, length));
+				Assert.assertEquals(count, ArrayScans.countNonZero(array, offset, length));
+				Assert.assertEquals(first < 0, ArrayScans.allZero(array, offset, length));
+			}
+		}
+	}
+
+	@Test
+	public void byteTest()
+	{
+		for (int n = 0; n < 70; n++)
+		{
+			final byte[] array = new byte[n];
+			for (int i = 0; i < n; i++)
+			{
+				array[i] = (random.nextInt(6) == 0) ? (byte) (random.nextInt(255) + 1) : 0;
+			}
+			for (int offset = 0; offset <= n; offset += 3)
+			{
+				final int length = n - offset;
+				int first = -1;
+				int count = 0;
+				for (int i = offset; i < n; i++)
+				{
+					if (array[i] != 0)
+					{
+						first = (first < 0) ? i : first;
+						count++;
+					}
+				}
+				Assert.assertEquals(first, ArrayScans.firstNonZero(array, offset, length));
+				Assert.assertEquals(count, ArrayScans.countNonZero(array, offset, length));
+				Assert.assertEquals(first < 0, ArrayScans.allZero(array, offset, length));
+			}
+		}
+		Assert.assertEquals(8, ArrayScans.countNonZero(new byte[] { -128, 1, 127, -1, (byte) 0x80, 0x7F, 2, 3, 0 }));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void rangeTest()
+	{
+		ArrayScans.firstNonZero(new int[4], 2, 3);
+	}
+}
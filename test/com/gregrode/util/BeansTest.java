@@ -0,0 +1,201 @@
+package com.gregrode.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class BeansTest
+{
+
+	@Test
+	public void toMapTest()
+	{
+		final Person person = new Person();
+		person.setName("greg");
+		person.setAge(30);
+		person.setActive(true);
+		person.setTags(Arrays.asList("a", "b"));
+		person.nickname = "gd";
+
+		final Map<String, Object> map = Things.beanToMap(person);
+		Assert.assertEquals(Arrays.asList("URL", "active", "age", "name", "nickname", "tags"),
+				Arrays.asList(map.keySet().toArray()));
+		Assert.assertEquals("greg", map.get("name"));
+		Assert.assertEquals(30, map.get("age"));
+		Assert.assertEquals(true, map.get("active"));
+		Assert.assertEquals(Arrays.asList("a", "b"), map.get("tags"));
+		Assert.assertEquals("gd", map.get("nickname"));
+		Assert.assertNull(map.get("URL"));
+
+		final Map<String, Object> hidden = Things.beanToMap(new Hidden());
+		Assert.assertEquals(1, hidden.size());
+		Assert.assertEquals(7L, hidden.get("count"));
+
+		final Map<Integer, String> numbers = new HashMap<>();
+		numbers.put(1, "one");
+		Assert.assertEquals("one", Things.beanToMap(numbers).get("1"));
+	}
+
+	@Test
+	public void fromMapTest()
+	{
+		final Map<String, Object> map = new HashMap<>();
+		map.put("name", "greg");
+		map.put("age", 30L);
+		map.put("active", null);
+		map.put("tags", Arrays.asList("a", "b"));
+		map.put("nickname", "gd");
+		map.put("URL", "http://gregrode.com");
+		map.put("unknown", 1);
+
+		final Person person = Things.fromMap(map, Person.class);
+		Assert.assertEquals("greg", person.getName());
+		Assert.assertEquals(30, person.getAge());
+		Assert.assertFalse(person.isActive());
+		Assert.assertEquals(Arrays.asList("a", "b"), person.getTags());
+		Assert.assertEquals("gd", person.nickname);
+		Assert.assertEquals("http://gregrode.com", person.getURL());
+		Assert.assertEquals(Things.beanToMap(person), Things.beanToMap(Things.fromMap(Things.beanToMap(person),
+				Person.class)));
+
+		final Map<String, Object> nested = new HashMap<>();
+		nested.put("age", "41");
+		nested.put("tags", Arrays.asList(1, 2));
+		final Person converted = Things.fromMap(nested, Person.class);
+		Assert.assertEquals(41, converted.getAge());
+		Assert.assertEquals(Arrays.asList("1", "2"), converted.getTags());
+
+		Assert.assertEquals(3L, Things.fromMap(Things.mapOf("count", 3), Hidden.class).getCount());
+	}
+
+	@Test
+	public void mismatchedSetterTest()
+	{
+		final Mismatched mismatched = Things.fromMap(Things.mapOf("id", 12, "code", "7"), Mismatched.class);
+		Assert.assertEquals("12", mismatched.getId());
+		Assert.assertEquals(7, mismatched.getCode());
+		Assert.assertEquals(Things.mapOf("code", 7, "id", "12"), Things.beanToMap(mismatched));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void fromMapWithoutConstructorTest()
+	{
+		Things.fromMap(new HashMap<>(), Integer.class);
+	}
+
+	public static final class Person
+	{
+		public String nickname;
+		private String name;
+		private int age;
+		private boolean active;
+		private List<String> tags;
+		private String url;
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(String name)
+		{
+			this.name = name;
+		}
+
+		public int getAge()
+		{
+			return age;
+		}
+
+		public Person setAge(int age)
+		{
+			this.age = age;
+			return this;
+		}
+
+		public boolean isActive()
+		{
+			return active;
+		}
+
+		public void setActive(boolean active)
+		{
+			this.active = active;
+		}
+
+		public List<String> getTags()
+		{
+			return tags;
+		}
+
+		public void setTags(List<String> tags)
+		{
+			this.tags = tags;
+		}
+
+		public String getURL()
+		{
+			return url;
+		}
+
+		public void setURL(String url)
+		{
+			this.url = url;
+		}
+	}
+
+	public static final class Mismatched
+	{
+		private String id;
+		private int code;
+
+		public void setId(long id)
+		{
+			this.id = String.valueOf(id);
+		}
+
+		public String getId()
+		{
+			return id;
+		}
+
+		public void setCode(String code)
+		{
+			this.code = -1;
+		}
+
+		public void setCode(int code)
+		{
+			this.code = code;
+		}
+
+		public int getCode()
+		{
+			return code;
+		}
+	}
+
+	static final class Hidden
+	{
+		private long count = 7;
+
+		long getPackagePrivate()
+		{
+			return count;
+		}
+
+		public long getCount()
+		{
+			return count;
+		}
+
+		public void setCount(long count)
+		{
+			this.count = count;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.gregrode.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class BinaryTest
+{
+
+	@Test
+	public void sameMapsAsJsonTest()
+	{
+		final Map<String, Object> object = new LinkedHashMap<>();
+		object.put("string", "gr\u00e4g");
+		object.put("int", -42);
+		object.put("short", (short) 7);
+		object.put("long", 1L << 40);
+		object.put("smallLong", 3L);
+		object.put("double", 0.1);
+		object.put("float", 1.1f);
+		object.put("decimal", new BigDecimal("12.5"));
+		object.put("big", BigInteger.ONE.shiftLeft(80).negate());
+		object.put("true", true);
+		object.put("false", false);
+		object.put("null", null);
+		object.put("char", 'c');
+		object.put("bytes", new byte[] { 1, 2, 3 });
+		object.put("array", new Object[] { 1, "two" });
+		object.put("list", Arrays.asList(Things.mapOf("id", 1, "name", "a"), Things.mapOf("id", 2, "name", "b")));
+		object.put("nested", Things.mapOf("empty", Collections.emptyMap(), "none", Collections.emptyList()));
+		object.put("bean", new BeansTest.Person().setAge(3));
+
+		final Map<String, String> expected = Things.toMap(Things.toJSON(object));
+		Assert.assertEquals(expected, Things.fromBinary(Things.toBinary(object)));
+
+		final ByteBuffer direct = ByteBuffer.allocateDirect(1024);
+		direct.put(Things.toBinary(object)).flip();
+		Assert.assertEquals(expected, Things.fromBinary(LinkedHashMap::new, direct));
+		Assert.assertEquals(0, direct.position());
+
+		final Map<String, String> bean = Things.fromBinary(Things.toBinary(new BeansTest.Person().setAge(3)));
+		Assert.assertEquals(Things.toMap(Things.toJSON(new BeansTest.Person().setAge(3))), bean);
+	}
+
+	@Test
+	public void keyTableTest()
+	{
+		final List<Map<String, Object>> rows = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			rows.add(Things.mapOf("identifier", i, "description", "row"));
+		}
+		final byte[] binary = Things.toBinary(Collections.singletonMap("rows", rows));
+		Assert.assertTrue(binary.length < (100 * 13));
+		Assert.assertTrue(binary.length < (Things.toJSON(Collections.singletonMap("rows", rows)).length() / 3));
+		Assert.assertEquals(Things.toMap(Things.toJSON(Collections.singletonMap("rows", rows))), Things.fromBinary(binary));
+	}
+
+	@Test
+	public void offHeapTest()
+	{
+		final Map<String, Object> object = new LinkedHashMap<>();
+		object.put("string", "greg");
+		object.put("int", 42);
+		object.put("nested", Arrays.asList(1, 2));
+		try (OffHeapStringMap map = new OffHeapStringMap())
+		{
+			Things.fromBinary(() -> map, Things.toBinary(object));
+			Assert.assertEquals("greg", map.get("string"));
+			Assert.assertEquals("42", map.get("int"));
+			Assert.assertEquals("[1,2]", map.get("nested"));
+		}
+	}
+
+	@Test
+	public void malformedTest()
+	{
+		final byte[] binary = Things.toBinary(Things.mapOf("key", "value"));
+		Assert.assertTrue(Things.fromBinary(Arrays.copyOf(binary, binary.length - 1)).isEmpty());
+		Assert.assertTrue(Things.fromBinary(Things.toBinary("not an object")).isEmpty());
+		Assert.assertTrue(Things.fromBinary("{}".getBytes()).isEmpty());
+		binary[4] = 0x7F;
+		Assert.assertTrue(Things.fromBinary(binary).isEmpty());
+		Assert.assertEquals(0, Things.toBinary(new Object()).length);
+
+		final byte[] emptyBig = { (byte) 0xCB, 0x01, 0x08, 0x01, 0x02, 'k', 0x06, 0x00 };
+		Assert.assertTrue(Things.fromBinary(emptyBig).isEmpty());
+
+		final byte[] wideInt = { (byte) 0xCB, 0x01, 0x08, 0x01, 0x02, 'k', 0x03, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+				0x1F };
+		Assert.assertTrue(Things.fromBinary(wideInt).isEmpty());
+		wideInt[11] = 0x0F;
+		Assert.assertEquals(Integer.MIN_VALUE, Things.fromBinary(wideInt).get("k"));
+	}
+
+	@Test
+	public void depthTest()
+	{
+		final int depth = 100_000;
+		final byte[] nested = new byte[(6 + (depth * 2)) + 1];
+		System.arraycopy(new byte[] { (byte) 0xCB, 0x01, 0x08, 0x01, 0x02, 'k' }, 0, nested, 0, 6);
+		for (int i = 0; i < depth; i++)
+		{
+			nested[6 + (i * 2)] = 0x09;
+			nested[7 + (i * 2)] = 0x01;
+		}
+		Assert.assertTrue(Things.fromBinary(nested).isEmpty());
+
+		Object value = "leaf";
+		for (int i = 0; i < 998; i++)
+		{
+			value = Collections.singletonList(value);
+		}
+		Assert.assertEquals(1, Things.fromBinary(Things.toBinary(Collections.singletonMap("k", value))).size());
+	}
+}
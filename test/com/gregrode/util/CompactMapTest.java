@@ -0,0 +1,60 @@
+package com.gregrode.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class CompactMapTest
+{
+
+	@Test
+	public void mapOfTest()
+	{
+		final Map<String, Object> person = Things.mapOf("name", "greg", "age", 30, "evil", null, "name", "dennis");
+		Assert.assertEquals(3, person.size());
+		Assert.assertEquals("greg", person.get("name"));
+		Assert.assertEquals(30, person.get("age"));
+		Assert.assertTrue(person.containsKey("evil"));
+		Assert.assertNull(person.get("evil"));
+		Assert.assertNull(person.get(null));
+		Assert.assertEquals(Arrays.asList("name", "age", "evil"), Arrays.asList(person.keySet().toArray()));
+
+		final Map<String, Object> expected = new HashMap<>();
+		expected.put("name", "greg");
+		expected.put("age", 30);
+		expected.put("evil", null);
+		Assert.assertEquals(expected, person);
+		Assert.assertEquals(expected.hashCode(), person.hashCode());
+		Assert.assertEquals(Things.toMap(LinkedHashMap::new, Things.toEntry("a", 1)), Things.mapOf("a", 1));
+
+		final Object[] keysAndValues = { "a", 1, "b", 2, "a", 3, "b", new Object() };
+		Assert.assertEquals(2, CompactMap.of(keysAndValues).size());
+		Assert.assertEquals(Arrays.asList("a", 1, "b", 2, null, null, null, null), Arrays.asList(keysAndValues));
+	}
+
+	@Test
+	public void copyOfTest()
+	{
+		final Map<Integer, String> source = new HashMap<>();
+		for (int i = 0; i < 1000; i++)
+		{
+			source.put(i, "v" + i);
+		}
+		final CompactMap<Integer, String> copy = CompactMap.copyOf(source);
+		Assert.assertEquals(source, copy);
+		Assert.assertEquals("v999", copy.get(999));
+		Assert.assertNull(copy.get(1000));
+		Assert.assertSame(copy, CompactMap.copyOf(copy));
+		Assert.assertTrue(CompactMap.copyOf(new HashMap<>()).isEmpty());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void immutableTest()
+	{
+		Things.mapOf("a", 1).put("b", 2);
+	}
+}
@@ -0,0 +1,178 @@
+package com.gregrode.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+public final class JsonExportTest
+{
+
+	@Test
+	public void toJSONTest() throws IOException
+	{
+		for (final int size : new int[] { 0, 1, 512, 513, 20_000 })
+		{
+			final List<Object> items = records(size);
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Things.toJSON(items, out);
+			Assert.assertEquals(JsonMappers.mapper().writeValueAsString(items), out.toString("UTF-8"));
+		}
+	}
+
+	@Test
+	public void toNDJSONTest() throws IOException
+	{
+		final List<Object> items = records(5_000);
+		items.removeIf(item -> item == null);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Things.toNDJSON(items, out);
+		final String ndjson = out.toString("UTF-8");
+		Assert.assertEquals(items.size(), ndjson.split("\n").length);
+		Assert.assertTrue(ndjson.endsWith("}\n"));
+
+		try (Stream<Map<String, Object>> records =
+				Things.toMaps(LinkedHashMap::new, new ByteArrayInputStream(out.toByteArray())))
+		{
+			Assert.assertEquals(items.stream().map(Things::toJSON).collect(Collectors.toList()),
+					records.map(Things::toJSON).collect(Collectors.toList()));
+		}
+
+		final ByteArrayOutputStream empty = new ByteArrayOutputStream();
+		Things.toNDJSON(Collections.emptyList(), empty);
+		Assert.assertEquals(0, empty.size());
+	}
+
+	@Test
+	public void compactTest() throws IOException
+	{
+		final ObjectMapper defaults = JsonMappers.mapper();
+		try
+		{
+			JsonMappers.use(new ObjectMapper().configure(SerializationFeature.INDENT_OUTPUT, true));
+			final List<Object> items = records(1_500);
+			final ByteArrayOutputStream json = new ByteArrayOutputStream();
+			Things.toJSON(items, json);
+			Assert.assertEquals(defaults.writeValueAsString(items), json.toString("UTF-8"));
+
+			items.removeIf(item -> item == null);
+			final ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+			Things.toNDJSON(items, ndjson);
+			Assert.assertEquals(items.size(), ndjson.toString("UTF-8").split("\n").length);
+		}
+		finally
+		{
+			JsonMappers.use(defaults);
+		}
+	}
+
+	@Test
+	public void typeInfoTest() throws IOException
+	{
+		final List<Animal> animals = new ArrayList<>();
+		for (int i = 0; i < 1_000; i++)
+		{
+			animals.add(((i % 2) == 0) ? new Dog() : new Cat());
+		}
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Things.toJSON(animals, out);
+		Assert.assertEquals(JsonMappers.mapper().writeValueAsString(animals), out.toString("UTF-8"));
+
+		final Animals typed = new Animals();
+		typed.addAll(animals);
+		final ByteArrayOutputStream whole = new ByteArrayOutputStream();
+		Things.toJSON(typed, whole);
+		Assert.assertEquals(JsonMappers.mapper().writeValueAsString(typed), whole.toString("UTF-8"));
+		Assert.assertTrue(whole.toString("UTF-8").startsWith("{\"animals\":[{"));
+	}
+
+	@Test
+	public void failureTest() throws IOException
+	{
+		final List<Object> items = records(2_000);
+		items.set(1_500, new Object());
+		try
+		{
+			Things.toJSON(items, new ByteArrayOutputStream());
+			Assert.fail();
+		}
+		catch (final IOException e)
+		{
+			// expected: Object has no serializable properties
+		}
+
+		final OutputStream broken = new OutputStream()
+		{
+			@Override
+			public void write(int b) throws IOException
+			{
+				throw new IOException("broken");
+			}
+		};
+		try
+		{
+			Things.toNDJSON(records(2_000), broken);
+			Assert.fail();
+		}
+		catch (final IOException e)
+		{
+			Assert.assertEquals("broken", e.getMessage());
+		}
+	}
+
+	@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "kind")
+	@JsonSubTypes({ @JsonSubTypes.Type(value = Dog.class, name = "dog"), @JsonSubTypes.Type(value = Cat.class, name = "cat") })
+	public abstract static class Animal
+	{
+		public int legs = 4;
+	}
+
+	public static final class Dog extends Animal
+	{
+		public boolean barks = true;
+	}
+
+	public static final class Cat extends Animal
+	{
+		public int lives = 9;
+	}
+
+	@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.WRAPPER_OBJECT, property = "kind")
+	@JsonTypeName("animals")
+	public static final class Animals extends ArrayList<Animal>
+	{
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static List<Object> records(int size)
+	{
+		final List<Object> items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			final Map<String, Object> record = new LinkedHashMap<>();
+			record.put("id", i);
+			record.put("name", "record-" + i);
+			record.put("tags", Arrays.asList("a", "b"));
+			items.add(((i % 100) == 99) ? null : record);
+		}
+		return items;
+	}
+}
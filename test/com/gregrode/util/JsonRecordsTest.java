@@ -0,0 +1,120 @@
+package com.gregrode.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class JsonRecordsTest
+{
+
+	@Test
+	public void ndjsonTest() throws IOException
+	{
+		final String ndjson = "{\"id\":1,\"name\":\"a\"}\n{\"id\":2,\"tags\":[1,2]}\n\n{'id':3}\n";
+		try (Stream<Map<String, Object>> records = Things.toMaps(LinkedHashMap::new, new StringReader(ndjson)))
+		{
+			final List<Map<String, Object>> list = records.collect(Collectors.toList());
+			Assert.assertEquals(3, list.size());
+			Assert.assertEquals("a", list.get(0).get("name"));
+			Assert.assertEquals(Arrays.asList(1, 2), list.get(1).get("tags"));
+			Assert.assertEquals(3, list.get(2).get("id"));
+		}
+	}
+
+	@Test
+	public void arrayTest() throws IOException
+	{
+		final AtomicBoolean closed = new AtomicBoolean();
+		final byte[] json = "[{\"id\":1},{\"id\":2},{\"id\":3}]".getBytes(StandardCharsets.UTF_8);
+		final ByteArrayInputStream in = new ByteArrayInputStream(json)
+		{
+			@Override
+			public void close()
+			{
+				closed.set(true);
+			}
+		};
+		try (Stream<Map<String, Integer>> records = Things.toMaps(LinkedHashMap::new, in))
+		{
+			Assert.assertEquals(Arrays.asList(1, 2), records.limit(2).map(m -> m.get("id")).collect(Collectors.toList()));
+			Assert.assertFalse(closed.get());
+		}
+		Assert.assertTrue(closed.get());
+	}
+
+	@Test
+	public void parallelTest() throws IOException
+	{
+		final Path file = Files.createTempFile("records", ".ndjson");
+		try
+		{
+			final StringBuilder ndjson = new StringBuilder();
+			for (int i = 0; i < 10_000; i++)
+			{
+				ndjson.append("{\"id\":").append(i).append("}\n");
+			}
+			Files.write(file, ndjson.toString().getBytes(StandardCharsets.UTF_8));
+			try (Stream<Map<String, Integer>> records = Things.toMaps(LinkedHashMap::new, file))
+			{
+				Assert.assertEquals((10_000L * 9_999L) / 2L, records.parallel().mapToLong(m -> m.get("id")).sum());
+			}
+			try (Stream<Map<String, Integer>> records = Things.toMaps(LinkedHashMap::new, file))
+			{
+				Assert.assertEquals(9_999, (int) records.parallel().skip(9_999).findFirst().get().get("id"));
+			}
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void malformedTest() throws IOException
+	{
+		final List<String> inputs = Arrays.asList("{\"id\":1}\n[1]", "[1,{\"id\":2}]", "\"x\"\n{\"id\":1}\n",
+				"{\"id\":1}\n[{\"id\":2}]", "[{\"id\":1},[{\"id\":2}]]");
+		for (final String input : inputs)
+		{
+			assertMalformed(Things.toMaps(LinkedHashMap::new, new StringReader(input)), input);
+		}
+
+		final Path file = Files.createTempFile("records", ".ndjson");
+		try
+		{
+			Files.write(file, "\"x\"\n{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+			assertMalformed(Things.toMaps(LinkedHashMap::new, file), "file");
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+
+	private static void assertMalformed(Stream<Map<String, Object>> records, String input)
+	{
+		try (Stream<Map<String, Object>> closing = records)
+		{
+			closing.count();
+			Assert.fail("Expected a failure reading " + input);
+		}
+		catch (final UncheckedIOException e)
+		{
+			Assert.assertTrue(e.getCause().getMessage(), e.getCause().getMessage().startsWith("Expected a JSON object but found"));
+		}
+	}
+}
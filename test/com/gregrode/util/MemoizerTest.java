@@ -0,0 +1,139 @@
+package com.gregrode.util;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class MemoizerTest
+{
+
+	@Test
+	public void applyTest()
+	{
+		final AtomicInteger calls = new AtomicInteger();
+		final Memoizer<String, Integer> length = Things.memoize(s -> {
+			calls.incrementAndGet();
+			return (s == null) ? -1 : s.length();
+		}, Memoizer.<String, Integer> options().maximumSize(100));
+
+		final Collection<Integer> lengths = Things.pluck(Arrays.asList("a", "bb", "a", "bb", "ccc"), length);
+		Assert.assertEquals(Arrays.asList(1, 2, 1, 2, 3), lengths);
+		Assert.assertEquals(Integer.valueOf(-1), length.apply(null));
+		Assert.assertEquals(4, calls.get());
+		Assert.assertEquals(2, length.stats().getHits());
+		Assert.assertEquals(4, length.stats().getMisses());
+
+		length.invalidate("a");
+		length.apply("a");
+		Assert.assertEquals(5, calls.get());
+	}
+
+	@Test
+	public void evictTest()
+	{
+		final Memoizer<Integer, Integer> square =
+				Things.memoize(i -> i * i, Memoizer.<Integer, Integer> options().maximumSize(10));
+		for (int i = 1; i <= 100; i++)
+		{
+			square.apply(0);
+			square.apply(i);
+		}
+		Assert.assertEquals(10, square.size());
+		Assert.assertEquals(10, square.weight());
+		Assert.assertEquals(99, square.stats().getHits());
+		Assert.assertEquals(91, square.stats().getEvictions());
+
+		final Memoizer<String, String> weighted = Things.memoize(s -> s,
+				Memoizer.<String, String> options().maximumWeight(10, (k, v) -> v.length()));
+		weighted.apply("abcd");
+		weighted.apply("efgh");
+		weighted.apply("ijkl");
+		Assert.assertTrue(weighted.weight() <= 10);
+	}
+
+	@Test
+	public void expireTest() throws Exception
+	{
+		final AtomicInteger calls = new AtomicInteger();
+		final Memoizer<String, Integer> memoizer = Things.memoize(s -> calls.incrementAndGet(),
+				Memoizer.<String, Integer> options().expireAfterWrite(Duration.ofMillis(20)));
+		Assert.assertEquals(memoizer.apply("a"), memoizer.apply("a"));
+		Thread.sleep(40);
+		memoizer.apply("a");
+		Assert.assertEquals(2, calls.get());
+	}
+
+	@Test
+	public void invalidateReleasesTest() throws Exception
+	{
+		final Memoizer<Integer, byte[]> memoizer = Things.memoize(i -> new byte[1024],
+				Memoizer.<Integer, byte[]> options().expireAfterWrite(Duration.ofMinutes(1)));
+		for (int i = 0; i < 100_000; i++)
+		{
+			memoizer.apply(i);
+			memoizer.invalidate(i);
+		}
+		Assert.assertEquals(0, memoizer.size());
+		Assert.assertEquals(0, memoizer.weight());
+		final Field clock = Memoizer.class.getDeclaredField("clock");
+		clock.setAccessible(true);
+		Assert.assertTrue(((Collection<?>) clock.get(memoizer)).size() <= 1);
+	}
+
+	@Test
+	public void evictionWithoutSweepTest() throws Exception
+	{
+		final Memoizer<Integer, Integer> memoizer =
+				Things.memoize(i -> i, Memoizer.<Integer, Integer> options().maximumSize(100));
+		final Field dead = Memoizer.class.getDeclaredField("dead");
+		dead.setAccessible(true);
+		for (int i = 0; i < 10_000; i++)
+		{
+			memoizer.apply(i);
+			// evicted nodes have already left the clock, so they never count towards a sweep
+			Assert.assertEquals(0, dead.getInt(memoizer));
+		}
+		Assert.assertEquals(100, memoizer.size());
+	}
+
+	@Test
+	public void singleFlightTest() throws Exception
+	{
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Memoizer<String, Integer> slow = Things.memoize(s -> {
+			calls.incrementAndGet();
+			started.countDown();
+			Things.uncheck(() -> release.await());
+			return s.length();
+		}, Memoizer.options());
+		final CompletableFuture<Integer> first = Things.async(() -> slow.apply("abc"));
+		started.await();
+		final CompletableFuture<Integer> second = Things.async(() -> slow.apply("abc"));
+		Thread.sleep(20);
+		release.countDown();
+		Assert.assertEquals(Integer.valueOf(3), first.get());
+		Assert.assertEquals(Integer.valueOf(3), second.get());
+		Assert.assertEquals(1, calls.get());
+
+		try
+		{
+			Things.memoize(s -> {
+				throw new IllegalStateException(s);
+			}, Memoizer.<String, Object> options()).apply("boom");
+			Assert.fail();
+		}
+		catch (final IllegalStateException e)
+		{
+			Assert.assertEquals("boom", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package com.gregrode.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class MetricsTest
+{
+
+	@Test
+	public void recordTest()
+	{
+		final Metrics.Registry registry = new Metrics.Registry();
+		Metrics.install(registry);
+		try
+		{
+			final Map<String, Object> map = new HashMap<>();
+			map.put("name", "greg");
+			final String json = Things.toJSON(map);
+			Assert.assertEquals("greg", Things.toMap(json).get("name"));
+			Assert.assertTrue(Things.toMap("{ not json").isEmpty());
+			try
+			{
+				Things.verify(null, "missing");
+				Assert.fail();
+			}
+			catch (final NullPointerException e)
+			{
+				Assert.assertEquals("missing", e.getMessage());
+			}
+
+			final Metrics.Stats toJSON = registry.stats(Metrics.Operation.TO_JSON);
+			Assert.assertEquals(1, toJSON.getCount());
+			Assert.assertEquals(0, toJSON.getFailures());
+			Assert.assertEquals(json.length(), toJSON.getSizes().getSum());
+
+			final Metrics.Stats toMap = registry.stats(Metrics.Operation.TO_MAP);
+			Assert.assertEquals(1, toMap.getCount());
+			Assert.assertEquals(1, toMap.getFailures());
+			Assert.assertEquals(1, toMap.getLatency().getCount());
+
+			Assert.assertEquals("greg", Things.toLazyMap(json).get("name"));
+			Assert.assertTrue(Things.toLazyMap("[]").isEmpty());
+			Assert.assertEquals(2, toMap.getCount());
+			Assert.assertEquals(2, toMap.getFailures());
+			Assert.assertEquals(json.length() * 2, toMap.getSizes().getSum());
+
+			Assert.assertEquals(1, registry.stats(Metrics.Operation.VERIFY).getFailures());
+		}
+		finally
+		{
+			Metrics.uninstall();
+		}
+		Things.toJSON("ignored");
+		Assert.assertNull(Metrics.recorder());
+	}
+
+	@Test
+	public void exportTest() throws IOException
+	{
+		final Metrics.Registry registry = new Metrics.Registry();
+		Metrics.install(registry);
+		try
+		{
+			final ByteArrayOutputStream json = new ByteArrayOutputStream();
+			Things.toJSON(Arrays.asList(1, 2, 3), json);
+			final ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+			Things.toNDJSON(new HashSet<>(Arrays.asList("a", "b")), ndjson);
+			try
+			{
+				Things.toNDJSON(Collections.singletonList(new Object()), new ByteArrayOutputStream());
+				Assert.fail();
+			}
+			catch (final IOException e)
+			{
+				// expected: Object has no serializable properties
+			}
+
+			final Metrics.Stats toJSON = registry.stats(Metrics.Operation.TO_JSON);
+			Assert.assertEquals(2, toJSON.getCount());
+			Assert.assertEquals(1, toJSON.getFailures());
+			Assert.assertEquals(json.size() + ndjson.size(), toJSON.getSizes().getSum());
+		}
+		finally
+		{
+			Metrics.uninstall();
+		}
+	}
+
+	@Test
+	public void streamTest() throws IOException
+	{
+		final Metrics.Registry registry = new Metrics.Registry();
+		Metrics.install(registry);
+		try
+		{
+			final Map<String, Object> map = Collections.singletonMap("name", "greg");
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			Things.toJSON(map, out);
+			final StringWriter writer = new StringWriter();
+			Things.toJSON(map, writer);
+			final int written = Things.toJSON(map, ByteBuffer.allocate(64));
+			try
+			{
+				Things.toJSON(new Object(), new ByteArrayOutputStream());
+				Assert.fail();
+			}
+			catch (final IOException e)
+			{
+				// expected: Object has no serializable properties
+			}
+			try
+			{
+				Things.toJSON(map, ByteBuffer.allocate(4));
+				Assert.fail();
+			}
+			catch (final BufferOverflowException e)
+			{
+				// expected: the JSON does not fit
+			}
+
+			final Metrics.Stats toJSON = registry.stats(Metrics.Operation.TO_JSON);
+			Assert.assertEquals(3, toJSON.getCount());
+			Assert.assertEquals(2, toJSON.getFailures());
+			Assert.assertEquals(out.size() + writer.toString().length() + written, toJSON.getSizes().getSum());
+		}
+		finally
+		{
+			Metrics.uninstall();
+		}
+	}
+
+	@Test
+	public void histogramTest()
+	{
+		final Metrics.Histogram histogram = new Metrics.Histogram();
+		Assert.assertEquals(0, histogram.getPercentile(50));
+		histogram.record(0);
+		histogram.record(1);
+		histogram.record(5);
+		histogram.record(1000);
+		Assert.assertEquals(4, histogram.getCount());
+		Assert.assertEquals(1006, histogram.getSum());
+		Assert.assertEquals(1, histogram.getBuckets()[3]);
+		Assert.assertEquals(0, histogram.getPercentile(0));
+		Assert.assertEquals(1, histogram.getPercentile(50));
+		Assert.assertEquals(1023, histogram.getPercentile(100));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativePercentileTest()
+	{
+		new Metrics.Histogram().getPercentile(-1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void largePercentileTest()
+	{
+		new Metrics.Histogram().getPercentile(101);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nanPercentileTest()
+	{
+		new Metrics.Histogram().getPercentile(Double.NaN);
+	}
+}
@@ -0,0 +1,152 @@
+package com.gregrode.util;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class OffHeapStringMapTest
+{
+
+	@Test
+	public void putGetRemoveTest()
+	{
+		final Map<String, String> expected = new HashMap<>();
+		try (OffHeapStringMap map = new OffHeapStringMap())
+		{
+			for (int i = 0; i < 50_000; i++)
+			{
+				Assert.assertNull(map.put("key-" + i, "v\u00e4lue-" + i));
+				expected.put("key-" + i, "v\u00e4lue-" + i);
+			}
+			Assert.assertEquals("v\u00e4lue-7", map.put("key-7", null));
+			expected.put("key-7", null);
+			Assert.assertTrue(map.containsKey("key-7"));
+			Assert.assertNull(map.get("key-7"));
+			for (int i = 0; i < 50_000; i += 3)
+			{
+				Assert.assertEquals(expected.remove("key-" + i), map.remove("key-" + i));
+			}
+			Assert.assertNull(map.remove("missing"));
+			Assert.assertEquals(expected.size(), map.size());
+			Assert.assertEquals(expected, map);
+			Assert.assertEquals(map, expected);
+			Assert.assertTrue(map.garbageBytes() > 0);
+			Assert.assertTrue(map.allocatedBytes() >= (map.liveBytes() + map.garbageBytes()));
+
+			final Iterator<Map.Entry<String, String>> entries = map.entrySet().iterator();
+			Assert.assertEquals("key-1", entries.next().getKey());
+			entries.remove();
+			Assert.assertFalse(map.containsKey("key-1"));
+			Assert.assertEquals("key-2", entries.next().getKey());
+
+			map.clear();
+			Assert.assertTrue(map.isEmpty());
+			map.put("again", "yes");
+			Assert.assertEquals("yes", map.get("again"));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void closeTest()
+	{
+		final OffHeapStringMap map = new OffHeapStringMap(10);
+		map.put("name", "greg");
+		map.close();
+		map.close();
+		Assert.assertEquals(0, map.allocatedBytes());
+		map.get("name");
+	}
+
+	@Test
+	public void closedViewsTest()
+	{
+		final OffHeapStringMap map = new OffHeapStringMap();
+		map.put("a", "1");
+		map.put("b", "2");
+		final Iterator<Map.Entry<String, String>> cleared = map.entrySet().iterator();
+		map.clear();
+		try
+		{
+			cleared.next();
+			Assert.fail();
+		}
+		catch (final ConcurrentModificationException e)
+		{
+			// expected: the records were freed by clear
+		}
+
+		map.put("c", "3");
+		final Iterator<String> keys = map.keySet().iterator();
+		final Collection<String> values = map.values();
+		map.close();
+		try
+		{
+			keys.next();
+			Assert.fail();
+		}
+		catch (final IllegalStateException e)
+		{
+			Assert.assertEquals("Map is closed.", e.getMessage());
+		}
+		try
+		{
+			values.iterator();
+			Assert.fail();
+		}
+		catch (final IllegalStateException e)
+		{
+			Assert.assertEquals("Map is closed.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void textMapTest()
+	{
+		final Map<String, String> map = Things.toMap(Texts::new, "{'name':'greg','age':30,'tags':['a']}");
+		Assert.assertEquals("greg", map.get("name"));
+		Assert.assertEquals("30", map.get("age"));
+		Assert.assertEquals("[\"a\"]", map.get("tags"));
+	}
+
+	@Test
+	public void toMapTest() throws Exception
+	{
+		final String json = "{'name':'greg','age':30,'evil':false,'nothing':null,'possession':['car',{'house':2}]}";
+		try (OffHeapStringMap map = (OffHeapStringMap) Things.toMap(OffHeapStringMap::new, json))
+		{
+			Assert.assertEquals("greg", map.get("name"));
+			Assert.assertEquals("30", map.get("age"));
+			Assert.assertEquals("false", map.get("evil"));
+			Assert.assertNull(map.get("nothing"));
+			Assert.assertEquals("[\"car\",{\"house\":2}]", map.get("possession"));
+		}
+
+		final Path file = Files.createTempFile("things", ".json");
+		try
+		{
+			Files.write(file, "{\"a\":\"1\",\"b\":\"2\"}".getBytes(StandardCharsets.UTF_8));
+			try (OffHeapStringMap map = (OffHeapStringMap) Things.toMap(OffHeapStringMap::new, file))
+			{
+				Assert.assertEquals(2, map.size());
+				Assert.assertEquals("2", map.get("b"));
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+
+	static final class Texts extends HashMap<String, String> implements TextMap<String>
+	{
+		private static final long serialVersionUID = 1L;
+	}
+}
@@ -0,0 +1,76 @@
+package com.gregrode.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ThingsEventsTest
+{
+
+	@Test
+	public void recordTest() throws Exception
+	{
+		final Path file = Files.createTempFile("things", ".jfr");
+		try (Recording recording = new Recording())
+		{
+			recording.enable("com.gregrode.util.ToMap").withoutThreshold();
+			recording.enable("com.gregrode.util.Conversion").withoutThreshold();
+			recording.enable("com.gregrode.util.Export").withoutThreshold();
+			recording.enable("com.gregrode.util.ToJSON").withoutThreshold();
+			recording.start();
+			Things.toMap(LinkedHashMap::new, "{'name':'greg','age':30}");
+			Things.toLazyMap("{'name':'greg'}");
+			Things.toMap(Function.identity(), String::length, Arrays.asList("a", "bb", "ccc"));
+			Things.toNDJSON(Arrays.asList("a", "bb"), new ByteArrayOutputStream());
+			Things.toJSON(Collections.singletonMap("name", "greg"), new StringWriter());
+			Things.toJSON(Collections.singletonMap("age", 30), ByteBuffer.allocate(16));
+			recording.stop();
+			recording.dump(file);
+
+			final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			final RecordedEvent toMap =
+					events.stream().filter(e -> e.getEventType().getName().endsWith("ToMap")).findFirst().get();
+			Assert.assertEquals(24, toMap.getLong("inputSize"));
+			Assert.assertEquals(2, toMap.getInt("entries"));
+			Assert.assertEquals(LinkedHashMap.class.getName(), toMap.getClass("mapClass").getName());
+			Assert.assertFalse(toMap.getBoolean("failed"));
+			final RecordedEvent lazy = events.stream().filter(e -> e.getEventType().getName().endsWith("ToMap"))
+					.filter(e -> e.getLong("inputSize") == 15).findFirst().get();
+			Assert.assertEquals(LazyJsonMap.class.getName(), lazy.getClass("mapClass").getName());
+
+			final RecordedEvent conversion =
+					events.stream().filter(e -> e.getEventType().getName().endsWith("Conversion")).findFirst().get();
+			Assert.assertEquals("toMap", conversion.getString("operation"));
+			Assert.assertEquals(3, conversion.getInt("elements"));
+
+			final RecordedEvent export =
+					events.stream().filter(e -> e.getEventType().getName().endsWith("Export")).findFirst().get();
+			Assert.assertEquals("NDJSON", export.getString("format"));
+			Assert.assertEquals(2, export.getInt("elements"));
+			Assert.assertEquals(9, export.getLong("outputSize"));
+
+			final List<Long> toJSON = events.stream().filter(e -> e.getEventType().getName().endsWith("ToJSON"))
+					.filter(e -> !e.getBoolean("failed")).map(e -> e.getLong("outputSize")).sorted().collect(Collectors.toList());
+			Assert.assertEquals(Arrays.asList(10L, 15L), toJSON);
+		}
+		finally
+		{
+			Files.deleteIfExists(file);
+		}
+	}
+}
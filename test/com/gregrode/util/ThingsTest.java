@@ -3,17 +3,42 @@
  */
 package com.gregrode.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
 public final class ThingsTest
 {
 	enum Color
@@ -54,6 +79,93 @@ public final class ThingsTest
 		Things.verify(null, "This is null");
 	}
 
+	@Test
+	public void verifySupplierTest()
+	{
+		final List<String> names = Arrays.asList("greg");
+		Assert.assertSame(names, Things.verify(names, () -> new IllegalStateException("No names")));
+		Assert.assertSame(names, Things.verify(names, IllegalStateException::new, l -> l.contains("greg")));
+		Assert.assertEquals("greg", Things.verify("greg", s -> s.length() == 4, "Expected %s to have %d letters", "greg", 4));
+		try
+		{
+			Things.verify(names, IllegalStateException::new, l -> l.contains("dennis"));
+			Assert.fail("Expected verification to fail");
+		}
+		catch (final IllegalStateException e)
+		{
+			Assert.assertNull(e.getMessage());
+		}
+		try
+		{
+			Things.verify("greg", s -> s.length() == 5, "Expected %s to have %d letters", "greg", 5);
+			Assert.fail("Expected verification to fail");
+		}
+		catch (final NullPointerException e)
+		{
+			Assert.assertEquals("Expected greg to have 5 letters", e.getMessage());
+		}
+		try
+		{
+			Things.verify(null, () -> new IllegalArgumentException("Null object"));
+			Assert.fail("Expected verification to fail");
+		}
+		catch (final NullPointerException e)
+		{
+			Assert.assertEquals("Object was not specified.", e.getMessage());
+		}
+		try
+		{
+			Things.verify((String) null, () -> new IllegalArgumentException("Null string"), s -> !s.isEmpty());
+			Assert.fail("Expected verification to fail");
+		}
+		catch (final NullPointerException e)
+		{
+			Assert.assertEquals("Object was not specified.", e.getMessage());
+		}
+		try
+		{
+			Things.pluck((List<String>) null, String::length);
+			Assert.fail("Expected verification to fail");
+		}
+		catch (final NullPointerException e)
+		{
+			Assert.assertEquals("Object was not specified.", e.getMessage());
+		}
+		Assert.assertEquals(0, Things.verify(new String[0], () -> new IllegalArgumentException("Empty array")).length);
+	}
+
+	@Test
+	public void verifyAllocationTest()
+	{
+		final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)
+				|| !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported())
+		{
+			return;
+		}
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		final long id = Thread.currentThread().getId();
+		final List<String> names = Arrays.asList("greg", "dennis");
+		final String name = "greg";
+
+		long allocated = 0;
+		for (int round = 0; round < 3; round++)
+		{
+			final long before = threads.getThreadAllocatedBytes(id);
+			for (int i = 0; i < 100_000; i++)
+			{
+				Things.verify(name, s -> !s.isEmpty());
+				Things.verify(name, "Name is empty", s -> !s.isEmpty());
+				Things.verify(names, () -> new IllegalArgumentException("No names"));
+				Things.verify(names, IllegalStateException::new, l -> l.size() == 2);
+				Things.verify(name, s -> s.length() == 4, "Expected %s to have 4 letters", name);
+			}
+			allocated = threads.getThreadAllocatedBytes(id) - before;
+		}
+		// 500,000 successful checks; allow for the bookkeeping of the measurement itself
+		Assert.assertTrue("Allocated " + allocated + " bytes", allocated < 4096);
+	}
+
 	@Test
 	public void pluckTest()
 	{
@@ -61,6 +173,27 @@ public final class ThingsTest
 			Things.toEntry("lastName", "Dennis"));
 		final Collection<String> keys = Things.pluck(entries, Map.Entry::getKey);
 		Assert.assertNotNull(keys);
+
+		final List<String> words = Arrays.asList("a", "bb", "ccc");
+		Assert.assertArrayEquals(new int[] { 1, 2, 3 }, Things.pluckInt(words, String::length));
+		Assert.assertArrayEquals(new long[] { 97, 98, 99 }, Things.pluckLong(words, w -> w.charAt(0)));
+		Assert.assertArrayEquals(new double[] { 0.5, 1, 1.5 }, Things.pluckDouble(words, w -> w.length() / 2.0), 0);
+	}
+
+	@Test
+	public void parallelTest()
+	{
+		final List<Integer> numbers = new ArrayList<>();
+		for (int i = 0; i < 200_000; i++)
+		{
+			numbers.add(i);
+		}
+		final Map<Integer, Integer> firstByBucket = Things.toMap(HashMap::new, n -> n % 1000, n -> n, numbers, 1000);
+		Assert.assertEquals(Things.toMap(HashMap::new, n -> n % 1000, n -> n, numbers), firstByBucket);
+		Assert.assertEquals((Object) 999, firstByBucket.get(999));
+
+		final Collection<String> plucked = Things.pluck(numbers, String::valueOf, 1000);
+		Assert.assertEquals(Things.pluck(numbers, String::valueOf), plucked);
 	}
 
 	@Test
@@ -70,6 +203,68 @@ public final class ThingsTest
 		Assert.assertNotNull(json);
 	}
 
+	@Test
+	public void jsonMappersTest()
+	{
+		Assert.assertSame(JsonMappers.reader(LinkedHashMap.class), JsonMappers.reader(LinkedHashMap.class));
+		Assert.assertSame(JsonMappers.writer(String.class), JsonMappers.writer(String.class));
+
+		final ObjectMapper defaults = JsonMappers.mapper();
+		try
+		{
+			JsonMappers.use(new ObjectMapper().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true));
+			final Map<String, String> map = Things.toMap(LinkedHashMap::new, Things.toEntry("vehicle", "car"),
+				Things.toEntry("home", "house"));
+			Assert.assertEquals("{\"home\":\"house\",\"vehicle\":\"car\"}", Things.toJSON(map));
+
+			JsonMappers.use(new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+				.enable(DeserializationFeature.USE_BIG_INTEGER_FOR_INTS));
+			final Map<String, ?> numbers = Things.toMap("{'ratio' : 0.5, 'count' : 3, 'nested' : {'ratio' : 0.5}}");
+			Assert.assertEquals(new BigDecimal("0.5"), numbers.get("ratio"));
+			Assert.assertEquals(BigInteger.valueOf(3), numbers.get("count"));
+			Assert.assertEquals(Collections.singletonMap("ratio", new BigDecimal("0.5")), numbers.get("nested"));
+		}
+		finally
+		{
+			JsonMappers.use(defaults);
+		}
+	}
+
+	@Test
+	public void toJSONStreamTest() throws IOException
+	{
+		final Map<String, String> map = Things.toMap(LinkedHashMap::new, Things.toEntry("home", "house"),
+			Things.toEntry("vehicle", "car"));
+		final String expected = Things.toJSON(map);
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Things.toJSON(map, out);
+		Assert.assertEquals(expected, new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+		final StringWriter writer = new StringWriter();
+		Things.toJSON(map, writer);
+		Assert.assertEquals(expected, writer.toString());
+
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(64);
+		final int written = Things.toJSON(map, buffer);
+		Assert.assertEquals(written, buffer.position());
+		buffer.flip();
+		final byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		Assert.assertEquals(expected, new String(bytes, StandardCharsets.UTF_8));
+
+		final ByteBuffer small = ByteBuffer.allocate(8);
+		try
+		{
+			Things.toJSON(map, small);
+			Assert.fail("Expected the buffer to overflow");
+		}
+		catch (final BufferOverflowException e)
+		{
+			Assert.assertEquals(0, small.position());
+		}
+	}
+
 	@Test
 	public void toMapTest()
 	{
@@ -87,8 +282,141 @@ public final class ThingsTest
 			"{'1': 'apple', '4' : 'zebra', '7' : 'queens', '100' : 'baseball'}");
 		Assert.assertEquals("apple", map3.get("1"));
 
+		final Map<String, Object> map5 = Things.toMap(TreeMap::new,
+			"{'name' : \"O'Brien\", 'age' : 42, 'tags' : ['a', 'b'], 'address' : {'city' : 'Kingston'}}");
+		Assert.assertTrue(map5 instanceof TreeMap);
+		Assert.assertEquals("O'Brien", map5.get("name"));
+		Assert.assertEquals(42, map5.get("age"));
+		Assert.assertEquals(Arrays.asList("a", "b"), map5.get("tags"));
+		Assert.assertEquals("Kingston", ((Map<?, ?>) map5.get("address")).get("city"));
+		Assert.assertTrue(Things.toMap("['not', 'an', 'object']").isEmpty());
+
 		final Map<Color, Integer> map4 = Things.toMap(Color.class, Color::hashCode);
 		Assert.assertTrue(map4.containsKey(Color.RED));
+		Assert.assertEquals(3, map4.size());
+
+		final Function<Color, String> lower = c -> c.name().toLowerCase();
+		final Map<Color, String> names = Things.toConstantMap(Color.class, lower);
+		Assert.assertEquals("green", names.get(Color.GREEN));
+		Assert.assertSame(names, Things.toConstantMap(Color.class, lower));
+		Assert.assertEquals(Things.toMap(Color.class, lower), names);
+		try
+		{
+			names.put(Color.RED, "crimson");
+			Assert.fail("Expected an immutable map");
+		}
+		catch (final UnsupportedOperationException e)
+		{
+			Assert.assertEquals("red", names.get(Color.RED));
+		}
+	}
+
+	@Test
+	public void toMapBytesTest() throws IOException
+	{
+		final byte[] json = "{'city' : 'Montego Bay', 'country' : 'Jamaica'}".getBytes(StandardCharsets.UTF_8);
+
+		Assert.assertEquals("Montego Bay", Things.toMap(json).get("city"));
+
+		final ByteBuffer direct = ByteBuffer.allocateDirect(json.length);
+		direct.put(json).flip();
+		final Map<String, String> map = Things.toMap(LinkedHashMap::new, direct);
+		Assert.assertEquals("Jamaica", map.get("country"));
+		Assert.assertEquals(0, direct.position());
+
+		final ByteBuffer slice = ByteBuffer.wrap(("xx" + new String(json, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8));
+		slice.position(2);
+		Assert.assertEquals("Jamaica", Things.toMap(slice.slice()).get("country"));
+
+		final Path file = Files.createTempFile("things", ".json");
+		try
+		{
+			Files.write(file, json);
+			Assert.assertEquals("Montego Bay", Things.toMap(file).get("city"));
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void toLazyMapTest()
+	{
+		final String json = "{'name' : 'greg', 'age' : 42, 'ratio' : 0.5, 'evil' : false, 'tags' : ['a'], "
+				+ "'address' : {'city' : 'Kingston'}, 'age' : 43}";
+		final Map<String, String> lazy = Things.toLazyMap(json);
+		Assert.assertTrue(lazy instanceof LazyJsonMap);
+		Assert.assertEquals(6, lazy.size());
+		Assert.assertTrue(lazy.containsKey("address"));
+		Assert.assertFalse(lazy.containsKey("missing"));
+		Assert.assertEquals("greg", lazy.get("name"));
+		Assert.assertEquals((Object) 43, lazy.get("age"));
+		Assert.assertEquals((Object) 0.5, lazy.get("ratio"));
+		Assert.assertEquals((Object) Boolean.FALSE, lazy.get("evil"));
+		Assert.assertNull(lazy.get("missing"));
+		Assert.assertFalse(((LazyJsonMap<?>) lazy).isMaterialized());
+
+		Assert.assertEquals(Things.toMap(json), lazy);
+		lazy.put("name", "Greg");
+		Assert.assertTrue(((LazyJsonMap<?>) lazy).isMaterialized());
+		Assert.assertEquals("Greg", lazy.get("name"));
+		Assert.assertEquals(6, lazy.size());
+
+		Assert.assertTrue(Things.toLazyMap("{'unterminated' : 1").isEmpty());
+
+		final Map<String, String> tight = Things.toLazyMap("{\"say \\\"hi\\\"\":\"greg\",'n':-1,\"o\":{'a':[1]}}");
+		Assert.assertEquals("greg", tight.get("say \"hi\""));
+		Assert.assertEquals((Object) (-1), tight.get("n"));
+		Assert.assertEquals(Things.toMap("{'a':[1]}"), tight.get("o"));
+
+		final StringBuilder large = new StringBuilder("{");
+		for (int i = 0; i < 5_000; i++)
+		{
+			large.append("\"key-").append(i).append("\" : [\"value-").append(i).append("\"], ");
+		}
+		final Map<String, String> big = Things.toLazyMap(large.append("\"last\" : \"end\" }").toString());
+		Assert.assertEquals(Arrays.asList("value-4999"), big.get("key-4999"));
+		Assert.assertEquals("end", big.get("last"));
+	}
+
+	@Test
+	public void toPrimitiveMapTest()
+	{
+		final List<String> words = Arrays.asList("", "a", "bb", "cc", "ddd");
+		final IntObjectMap<String> byLength = Things.toIntMap(String::length, w -> w, words);
+		Assert.assertEquals(4, byLength.size());
+		Assert.assertEquals("", byLength.get(0));
+		Assert.assertEquals("bb", byLength.get(2));
+		Assert.assertNull(byLength.get(7));
+		Assert.assertEquals(Things.toMap(w -> w.length(), w -> w, Arrays.asList("", "a", "bb", "ddd")), byLength.asMap());
+
+		final LongLongMap squares = Things.toLongLongMap(l -> l, l -> l * l, 0L, 3L, 1L << 40);
+		Assert.assertEquals(9L, squares.get(3L));
+		Assert.assertEquals(0L, squares.get(0L));
+		Assert.assertTrue(squares.containsKey(0L));
+		Assert.assertEquals(-1L, squares.getOrDefault(5L, -1L));
+
+		final IntIntMap map = new IntIntMap();
+		for (int i = -500; i < 500; i++)
+		{
+			map.put(i * 16, i);
+		}
+		for (int i = -500; i < 500; i += 2)
+		{
+			Assert.assertEquals(i, map.remove(i * 16));
+		}
+		Assert.assertEquals(500, map.size());
+		for (int i = -499; i < 500; i += 2)
+		{
+			Assert.assertEquals(i, map.get(i * 16));
+			Assert.assertFalse(map.containsKey((i - 1) * 16));
+		}
+		Assert.assertEquals(500, map.asMap().entrySet().size());
+
+		final LongObjectMap<String> ids = Things.toLongMap(Long::parseLong, s -> s, Arrays.asList("7", "07", "8"));
+		Assert.assertEquals("7", ids.get(7L));
+		Assert.assertEquals("7", ids.asMap().get(7L));
 	}
 
 	@Test
@@ -100,6 +428,174 @@ public final class ThingsTest
 
 	}
 
+	@Test
+	public void asyncTest() throws Exception
+	{
+		Assert.assertEquals("greg", Things.async(() -> "greg").get());
+		final IOException failure = new IOException("closed");
+		try
+		{
+			Things.async(() -> {
+				throw failure;
+			}).get();
+			Assert.fail();
+		}
+		catch (final ExecutionException e)
+		{
+			Assert.assertSame(failure, e.getCause());
+		}
+
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger peak = new AtomicInteger();
+		final List<Callable<Integer>> tasks = new ArrayList<>();
+		for (int i = 0; i < 20; i++)
+		{
+			final int n = i;
+			tasks.add(() -> {
+				peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+				Thread.sleep(5);
+				running.decrementAndGet();
+				return n;
+			});
+		}
+		tasks.add(() -> {
+			Thread.sleep(60_000);
+			return -1;
+		});
+		final List<CompletableFuture<Integer>> futures = Things.invokeAll(tasks, 4, Duration.ofSeconds(2));
+		Assert.assertEquals(21, futures.size());
+		Assert.assertEquals(Integer.valueOf(7), futures.get(7).get());
+		Assert.assertTrue(futures.get(20).isCancelled());
+		Assert.assertTrue(peak.get() <= 4);
+	}
+
+	@Test
+	public void closeTest() throws Exception
+	{
+		final AtomicInteger closed = new AtomicInteger();
+		final IOException failure = new IOException("broken");
+		final AutoCloseable ok = closed::incrementAndGet;
+		final AutoCloseable broken = () -> {
+			closed.incrementAndGet();
+			throw failure;
+		};
+		final AutoCloseable stuck = () -> Thread.sleep(60_000);
+
+		Assert.assertEquals(3, Things.close(Duration.ofSeconds(5), ok, null, ok).size());
+		Assert.assertEquals(2, closed.getAndSet(0));
+		try
+		{
+			Things.close(Duration.ofMillis(500), broken, ok, stuck, ok);
+			Assert.fail();
+		}
+		catch (final CloseException e)
+		{
+			Assert.assertEquals(3, closed.get());
+			Assert.assertEquals(2, e.getSuppressed().length);
+			Assert.assertSame(failure, e.getSuppressed()[0]);
+			Assert.assertTrue(e.getSuppressed()[1] instanceof TimeoutException);
+			Assert.assertNotNull(e.getDurations().get(0));
+			Assert.assertNull(e.getDurations().get(2));
+		}
+
+		// closes the executor has not started when the timeout expires are reported, and never run afterwards
+		closed.set(0);
+		final List<Runnable> queued = new ArrayList<>();
+		try
+		{
+			Tasks.close(Duration.ofMillis(10), new AutoCloseable[] { ok, null, ok }, queued::add);
+			Assert.fail();
+		}
+		catch (final CloseException e)
+		{
+			Assert.assertEquals(2, e.getSuppressed().length);
+			Assert.assertTrue(e.getSuppressed()[0] instanceof TimeoutException);
+			Assert.assertTrue(e.getSuppressed()[0].getMessage().contains("had not started"));
+			Assert.assertEquals(Arrays.asList(null, Duration.ZERO, null), e.getDurations());
+		}
+		queued.forEach(Runnable::run);
+		Assert.assertEquals(0, closed.get());
+	}
+
+	@Test
+	public void lazyTest() throws Exception
+	{
+		final AtomicInteger calls = new AtomicInteger();
+		final Lazy<Integer> lazy = Things.lazy(calls::incrementAndGet);
+		Assert.assertFalse(lazy.isInitialized());
+		Assert.assertEquals("greg", Things.nonNull("greg", () -> "x" + lazy.get()));
+		Assert.assertEquals(0, calls.get());
+		Assert.assertEquals(Integer.valueOf(1), lazy.get());
+		Assert.assertEquals(Integer.valueOf(1), lazy.get());
+		lazy.reset();
+		Assert.assertEquals(Integer.valueOf(2), lazy.get());
+
+		final Lazy<Integer> expiring = Things.lazy(calls::incrementAndGet, Duration.ofMillis(20));
+		final int first = expiring.get();
+		Assert.assertEquals(first, expiring.get().intValue());
+		Thread.sleep(40);
+		Assert.assertEquals(first + 1, expiring.get().intValue());
+	}
+
+	@Test
+	public void lazyRefreshOnceTest() throws Exception
+	{
+		final long ttl = Duration.ofMillis(1).toNanos();
+		final AtomicInteger calls = new AtomicInteger();
+		final AtomicInteger early = new AtomicInteger();
+		final long[] lastEnd = { System.nanoTime() - ttl };
+		final Lazy<Integer> lazy = Things.lazy(() -> {
+			// every call must follow the expiry of the value created by the previous one
+			if ((System.nanoTime() - (lastEnd[0] + ttl)) < 0L)
+			{
+				early.incrementAndGet();
+			}
+			final int n = calls.incrementAndGet();
+			lastEnd[0] = System.nanoTime();
+			return n;
+		}, Duration.ofNanos(ttl));
+		final long stop = System.nanoTime() + Duration.ofMillis(300).toNanos();
+		final Thread[] readers = new Thread[8];
+		for (int i = 0; i < readers.length; i++)
+		{
+			readers[i] = new Thread(() -> {
+				while ((System.nanoTime() - stop) < 0L)
+				{
+					lazy.get();
+				}
+			});
+			readers[i].start();
+		}
+		for (final Thread reader : readers)
+		{
+			reader.join();
+		}
+		Assert.assertTrue(calls.get() > 1);
+		Assert.assertEquals(0, early.get());
+
+		// a reset landing while the value is refreshed is kept
+		final List<Lazy<Integer>> holder = new ArrayList<>();
+		final Lazy<Integer> reset = Things.lazy(() -> {
+			if (!holder.isEmpty())
+			{
+				holder.get(0).reset();
+			}
+			return calls.incrementAndGet();
+		}, Duration.ofNanos(1));
+		reset.get();
+		holder.add(reset);
+		Thread.sleep(1);
+		Assert.assertNotNull(reset.get());
+		Assert.assertFalse(reset.isInitialized());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void nonZeroTest()
+	{
+		Assert.assertEquals(3, Things.nonZero(0, -2, 3, 4));
+		Things.nonZero(0, -1);
+	}
+
 	@Test(expected = NullPointerException.class)
 	public void nonNullTest()
 	{
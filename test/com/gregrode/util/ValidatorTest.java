@@ -0,0 +1,89 @@
+package com.gregrode.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public final class ValidatorTest
+{
+	static final class Person
+	{
+		final String name;
+		final int age;
+		final List<String> possession;
+
+		Person(String name, int age, String... possession)
+		{
+			this.name = name;
+			this.age = age;
+			this.possession = Arrays.asList(possession);
+		}
+	}
+
+	private final Validator<Person> validator = Validator.<Person> builder()
+		.require(p -> p.name, "The person must have a name")
+		.require(p -> p.age, age -> age > 18, "The person must be an adult")
+		.require(p -> p.possession, "The person must have things")
+		.check(p -> !"nobody".equals(p.name), "The person must be somebody")
+		.build();
+
+	@Test
+	public void validateTest()
+	{
+		Assert.assertTrue(validator.validate(new Person("greg", 30, "car")).isEmpty());
+		Assert.assertEquals(
+			Arrays.asList("The person must have a name", "The person must be an adult", "The person must have things"),
+			validator.validate(new Person("", 12)));
+		Assert.assertEquals(Collections.singletonList("The person must be somebody"),
+			validator.validate(new Person("nobody", 40, "hat")));
+	}
+
+	@Test
+	public void arrayTest()
+	{
+		final Validator<String[]> present = Validator.<String[]> builder().require(a -> a, "The array must be present").build();
+		Assert.assertTrue(present.validate(new String[0]).isEmpty());
+		final Validator<String[]> nonEmpty =
+				Validator.<String[]> builder().require(a -> a, a -> a.length > 0, "The array must not be empty").build();
+		Assert.assertEquals(Collections.singletonList("The array must not be empty"), nonEmpty.validate(new String[0]));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void verifyTest()
+	{
+		final Person greg = new Person("greg", 30, "car");
+		Assert.assertSame(greg, validator.verify(greg));
+		validator.verify(new Person(null, 30, "car"));
+	}
+
+	@Test
+	public void validateAllTest()
+	{
+		final List<Person> people = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++)
+		{
+			people.add(new Person("p" + i, (i % 1000 == 999) ? 10 : 30, "car"));
+		}
+		final List<Validator.Violation<Person>> all = validator.validateAll(people, false);
+		Assert.assertEquals(10, all.size());
+		Assert.assertEquals(999, all.get(0).getIndex());
+		Assert.assertEquals("The person must be an adult", all.get(0).getMessage());
+		Assert.assertEquals(all.toString(), validator.validateAll(people, false, 100).toString());
+
+		final List<Validator.Violation<Person>> first = validator.validateAll(people, true, 100);
+		Assert.assertEquals(1, first.size());
+		Assert.assertSame(people.get(999), first.get(0).getItem());
+
+		people.set(500, null);
+		final List<Validator.Violation<Person>> withNull = validator.validateAll(people, false, 100);
+		Assert.assertEquals(11, withNull.size());
+		Assert.assertEquals(500, withNull.get(0).getIndex());
+		Assert.assertNull(withNull.get(0).getItem());
+		Assert.assertEquals("Object was not specified.", withNull.get(0).getMessage());
+		Assert.assertEquals(500, validator.validateAll(people, true).get(0).getIndex());
+	}
+}